@@ -0,0 +1,56 @@
+package tech.yaog.utils.aioclient.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.StringDecoder;
+import tech.yaog.utils.aioclient.encoder.StringEncoder;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodecBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int length;
+
+    @Param({"UTF-8", "GBK"})
+    public String charset;
+
+    private StringEncoder encoder;
+    private StringDecoder decoder;
+    private String message;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        encoder = new StringEncoder(Charset.forName(charset));
+        decoder = new StringDecoder(Charset.forName(charset));
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0;i<length;i++) {
+            // 每 8 个字符混入一个中文字符
+            builder.append(i % 8 == 7 ? '中' : (char) ('a' + i % 26));
+        }
+        message = builder.toString();
+        encoded = encoder.encode(message);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(message);
+    }
+
+    @Benchmark
+    public String decode() {
+        return decoder.decode(encoded);
+    }
+}
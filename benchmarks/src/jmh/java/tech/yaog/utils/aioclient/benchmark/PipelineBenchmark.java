@@ -0,0 +1,125 @@
+package tech.yaog.utils.aioclient.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.AbstractHandler;
+import tech.yaog.utils.aioclient.Bootstrap;
+import tech.yaog.utils.aioclient.StringDecoder;
+import tech.yaog.utils.aioclient.io.IO;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+
+/**
+ * 完整的接收路径：IO.Callback.onReceived → 拆包 → 解码 → 分发到处理器。
+ * 使用不连接网络的 {@link BenchmarkIO}，处理器在 io 线程上直接执行（INLINE）
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PipelineBenchmark {
+
+    @Param({"16", "256", "4096"})
+    public int frameSize;
+
+    @Param({"1", "16"})
+    public int framesPerRead;
+
+    private Bootstrap bootstrap;
+    private IO.Callback callback;
+    private ByteBuffer read;
+    private Blackhole blackhole;
+
+    @Setup(Level.Trial)
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        bootstrap = new Bootstrap()
+                .ioClass(BenchmarkIO.class)
+                .splitter(new DelimiterSplitter("\r\n".getBytes()))
+                .addDecoder(new StringDecoder(Charset.forName("UTF-8")))
+                .addHandler(new AbstractHandler<String>() {
+                    @Override
+                    public boolean handle(String msg) {
+                        PipelineBenchmark.this.blackhole.consume(msg);
+                        return true;
+                    }
+                })
+                .dispatchMode(Bootstrap.DispatchMode.INLINE);
+        bootstrap.connect("benchmark:0");
+        callback = BenchmarkIO.last.callback();
+
+        int payload = Math.max(frameSize - 2, 1);
+        // 与 NIO/AIO 一样从直接内存读取
+        read = ByteBuffer.allocateDirect((payload + 2) * framesPerRead);
+        for (int i = 0;i<framesPerRead;i++) {
+            for (int j = 0;j<payload;j++) {
+                read.put((byte) ('a' + j % 26));
+            }
+            read.put((byte) '\r');
+            read.put((byte) '\n');
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bootstrap.disconnect();
+    }
+
+    @Benchmark
+    public void receive() {
+        read.clear();
+        callback.onReceived(read);
+    }
+
+    /**
+     * 不连接网络的 io，只保存回调供基准测试直接调用
+     */
+    public static class BenchmarkIO extends IO {
+
+        static volatile BenchmarkIO last;
+
+        public BenchmarkIO(Callback callback) {
+            super(callback);
+            last = this;
+        }
+
+        Callback callback() {
+            return callback;
+        }
+
+        @Override
+        public boolean connect(String remote) {
+            callback.onConnected();
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public void beginRead() {
+        }
+
+        @Override
+        public void stopRead() {
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            callback.onWritten(bytes.length);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package tech.yaog.utils.aioclient.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+import tech.yaog.utils.aioclient.splitter.HeadToTailDelimiterSplitter;
+import tech.yaog.utils.aioclient.splitter.TimestampSplitter;
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * 拆包器吞吐：每次操作相当于一次读取，包含 framesPerRead 个 frameSize 字节的帧
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SplitterBenchmark {
+
+    private static final byte[] DELIMITER = "\r\n".getBytes();
+    private static final byte[] HEAD = {(byte) 0xAA, 0x55};
+    private static final byte[] TAIL = {0x0D, 0x0A, 0x0D, 0x0A};
+
+    @Param({"16", "256", "4096"})
+    public int frameSize;
+
+    @Param({"1", "16"})
+    public int framesPerRead;
+
+    private byte[] delimited;
+    private byte[] headToTail;
+    private DelimiterSplitter delimiterSplitter;
+    private HeadToTailDelimiterSplitter headToTailSplitter;
+    private TimestampSplitter timestampSplitter;
+    private final AbstractSplitter.Frames frames = new AbstractSplitter.Frames();
+
+    @Setup
+    public void setup() {
+        delimited = build(new byte[0], DELIMITER);
+        headToTail = build(HEAD, TAIL);
+        delimiterSplitter = new DelimiterSplitter(DELIMITER);
+        headToTailSplitter = new HeadToTailDelimiterSplitter(HEAD, TAIL);
+        // 间隔为 0，第二次调用即断包，测量登记定时任务与断包的开销
+        timestampSplitter = new TimestampSplitter(0, new HashedWheelTimer("BenchmarkTimer", 1, TimeUnit.MILLISECONDS, 512));
+    }
+
+    /**
+     * 帧内容为不含分隔符的随机可见字符
+     */
+    private byte[] build(byte[] head, byte[] tail) {
+        Random random = new Random(42);
+        int payload = Math.max(frameSize - head.length - tail.length, 1);
+        int frameLength = head.length + payload + tail.length;
+        byte[] data = new byte[frameLength * framesPerRead];
+        for (int i = 0;i<framesPerRead;i++) {
+            int position = i * frameLength;
+            System.arraycopy(head, 0, data, position, head.length);
+            for (int j = 0;j<payload;j++) {
+                data[position + head.length + j] = (byte) ('a' + random.nextInt(26));
+            }
+            System.arraycopy(tail, 0, data, position + head.length + payload, tail.length);
+        }
+        return data;
+    }
+
+    @Benchmark
+    public void delimiter(Blackhole blackhole) {
+        split(delimiterSplitter, delimited, blackhole);
+    }
+
+    @Benchmark
+    public void headToTail(Blackhole blackhole) {
+        split(headToTailSplitter, headToTail, blackhole);
+    }
+
+    @Benchmark
+    public void timestamp(Blackhole blackhole) {
+        frames.clear();
+        timestampSplitter.split(delimited, 0, delimited.length, frames);
+        timestampSplitter.split(delimited, 0, delimited.length, frames);
+        blackhole.consume(frames.size());
+    }
+
+    /**
+     * 与 Bootstrap 一样，反复拆包并消费已拆出的帧，直到没有完整的帧
+     */
+    private void split(AbstractSplitter splitter, byte[] data, Blackhole blackhole) {
+        int offset = 0;
+        while (offset < data.length) {
+            frames.clear();
+            splitter.split(data, offset, data.length - offset, frames);
+            int size = frames.size();
+            if (size == 0) {
+                break;
+            }
+            for (int i = 0;i<size;i++) {
+                offset += frames.offset(i);
+                blackhole.consume(frames.length(i));
+                offset += frames.length(i) + frames.skip(i);
+            }
+        }
+    }
+}
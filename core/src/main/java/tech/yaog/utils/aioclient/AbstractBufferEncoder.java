@@ -0,0 +1,64 @@
+package tech.yaog.utils.aioclient;
+
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+
+/**
+ * 直接写入发送缓冲区的编码器，不需要为每条消息分配 byte[]
+ *
+ * 发送线程先按 {@link #sizeHint} 预留空间，再调用 {@link #encode(Object, OutputBuffer)}，
+ * 同一批次的多条消息写入同一个缓冲区后一次写出。
+ * 只实现了 {@link AbstractEncoder#encode(Object)} 的旧编码器由 {@link #adapt} 适配后同样可用。
+ */
+public abstract class AbstractBufferEncoder<T> extends AbstractEncoder<T> {
+
+    /**
+     * 编码后长度的估计值，不小于实际长度时缓冲区只需扩容一次，估计偏小只会多扩容
+     */
+    public abstract int sizeHint(T msg);
+
+    /**
+     * 把消息追加写入 out
+     * @return 无法编码时返回 false，此时不应写入任何数据
+     */
+    public abstract boolean encode(T msg, OutputBuffer out);
+
+    @Override
+    public byte[] encode(T msg) {
+        OutputBuffer out = new OutputBuffer(Math.max(sizeHint(msg), 16));
+        if (!encode(msg, out)) {
+            return null;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 把返回 byte[] 的编码器适配为写入缓冲区的编码器，多一次拷贝
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AbstractBufferEncoder<T> adapt(final AbstractEncoder<T> encoder) {
+        if (encoder instanceof AbstractBufferEncoder) {
+            return (AbstractBufferEncoder<T>) encoder;
+        }
+        return new AbstractBufferEncoder<T>() {
+            @Override
+            public int sizeHint(T msg) {
+                return 0;
+            }
+
+            @Override
+            public boolean encode(T msg, OutputBuffer out) {
+                byte[] bytes = encoder.encode(msg);
+                if (bytes == null) {
+                    return false;
+                }
+                out.write(bytes);
+                return true;
+            }
+
+            @Override
+            public byte[] encode(T msg) {
+                return encoder.encode(msg);
+            }
+        };
+    }
+}
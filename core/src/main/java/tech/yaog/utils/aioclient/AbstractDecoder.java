@@ -0,0 +1,19 @@
+package tech.yaog.utils.aioclient;
+
+import java.util.Arrays;
+
+public abstract class AbstractDecoder<T> {
+    public abstract T decode(byte[] byteBuffer);
+
+    /**
+     * 从接收缓冲区中直接解码一帧，不拷贝。
+     * frame 只在调用期间有效，不可修改，返回的对象也不能引用它（{@link AbstractFlyweight} 除外，由 Bootstrap 负责分离）。
+     * 默认实现拷贝出该帧后调用 {@link #decode(byte[])}，只需读取部分字段的解码器应覆盖此方法
+     * @param frame 帧所在数组
+     * @param offset 帧起始位置
+     * @param length 帧长度
+     */
+    public T decode(byte[] frame, int offset, int length) {
+        return decode(Arrays.copyOfRange(frame, offset, offset + length));
+    }
+}
@@ -0,0 +1,115 @@
+package tech.yaog.utils.aioclient;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * 享元消息，不在解码时解析字段，而是在访问时从帧中按偏移读取（大端）
+ *
+ * 由 {@link FlyweightDecoder} 创建时直接指向接收缓冲区，不拷贝。
+ * 处理器在 io 线程上执行（{@link Bootstrap.DispatchMode#INLINE}）时只在 handle 期间有效，需要保存时先调用 {@link #detach()}；
+ * 其他分发方式以及作为请求的应答交给 CompletableFuture 时，Bootstrap 会先分离再交出。
+ * <pre>
+ * public class Order extends AbstractFlyweight {
+ *     public int getType() {
+ *         return getByte(0);
+ *     }
+ *     public long getOrderId() {
+ *         return getLong(2);
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class AbstractFlyweight {
+
+    private byte[] array;
+    private int offset;
+    private int length;
+    private boolean detached;
+
+    /**
+     * 指向 frame 的 [offset, offset + length)
+     * @param owned frame 是否归该消息所有，是则不再需要分离
+     */
+    void wrap(byte[] frame, int offset, int length, boolean owned) {
+        this.array = frame;
+        this.offset = offset;
+        this.length = length;
+        this.detached = owned;
+    }
+
+    /**
+     * 拷贝出整帧，此后不再依赖接收缓冲区，可以跨线程使用或长期保存。已分离时不做任何事
+     */
+    public void detach() {
+        if (detached) {
+            return;
+        }
+        array = Arrays.copyOfRange(array, offset, offset + length);
+        offset = 0;
+        detached = true;
+    }
+
+    public boolean isDetached() {
+        return detached;
+    }
+
+    /**
+     * 帧长度
+     */
+    public int length() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(array, offset, offset + length);
+    }
+
+    /**
+     * 无符号单字节
+     */
+    protected int getByte(int index) {
+        checkIndex(index, 1);
+        return array[offset + index] & 0xFF;
+    }
+
+    /**
+     * 无符号两字节
+     */
+    protected int getShort(int index) {
+        checkIndex(index, 2);
+        int i = offset + index;
+        return (array[i] & 0xFF) << 8 | array[i + 1] & 0xFF;
+    }
+
+    protected int getInt(int index) {
+        checkIndex(index, 4);
+        int i = offset + index;
+        return (array[i] & 0xFF) << 24 | (array[i + 1] & 0xFF) << 16 | (array[i + 2] & 0xFF) << 8 | array[i + 3] & 0xFF;
+    }
+
+    protected long getLong(int index) {
+        checkIndex(index, 8);
+        return (getInt(index) & 0xFFFFFFFFL) << 32 | getInt(index + 4) & 0xFFFFFFFFL;
+    }
+
+    protected byte[] getBytes(int index, int length) {
+        checkIndex(index, length);
+        int start = offset + index;
+        return Arrays.copyOfRange(array, start, start + length);
+    }
+
+    protected String getString(int index, int length, Charset charset) {
+        checkIndex(index, length);
+        return new String(array, offset + index, length, charset);
+    }
+
+    private void checkIndex(int index, int size) {
+        if (array == null) {
+            throw new IllegalStateException("flyweight is not wrapped");
+        }
+        if (index < 0 || size < 0 || index + size > length) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size + ", length " + length);
+        }
+    }
+}
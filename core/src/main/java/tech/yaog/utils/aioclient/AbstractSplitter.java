@@ -0,0 +1,94 @@
+package tech.yaog.utils.aioclient;
+
+import java.util.Arrays;
+
+/**
+ * 拆包器
+ *
+ * 拆包器是增量的：每次调用 split 时只扫描上次未扫描过的部分，并把本次找到的全部完整帧一次性写入 {@link Frames}。
+ * 调用方在下一次调用 split 之前必须按 Frames 描述的长度消费掉对应的字节。
+ */
+public abstract class AbstractSplitter {
+
+    public interface Callback {
+        /**
+         * 异步拆包器（如按时间断包）在满足断包条件时通过此方法请求宿主重新调用 split
+         */
+        void requestSplit();
+
+        /**
+         * 数据无法拆包（如帧长度超出限制）时报告异常，拆包器自行丢弃相应数据后继续工作
+         */
+        void onException(Throwable t);
+    }
+
+    /**
+     * 一次拆包的结果，按顺序记录若干个 [丢弃 offset 字节][帧 length 字节][丢弃 skip 字节] 区段。
+     * length 为 0 的区段表示仅丢弃数据
+     */
+    public static class Frames {
+
+        private int[] entries = new int[3 * 16];
+        private int size;
+
+        public void add(int offset, int length, int skip) {
+            if (offset <= 0 && length <= 0 && skip <= 0) {
+                return;
+            }
+            int index = size * 3;
+            if (index + 3 > entries.length) {
+                entries = Arrays.copyOf(entries, entries.length << 1);
+            }
+            entries[index] = Math.max(offset, 0);
+            entries[index + 1] = Math.max(length, 0);
+            entries[index + 2] = Math.max(skip, 0);
+            size++;
+        }
+
+        public void add(int length, int skip) {
+            add(0, length, skip);
+        }
+
+        public void add(int length) {
+            add(0, length, 0);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int offset(int i) {
+            return entries[i * 3];
+        }
+
+        public int length(int i) {
+            return entries[i * 3 + 1];
+        }
+
+        public int skip(int i) {
+            return entries[i * 3 + 2];
+        }
+
+        public void clear() {
+            size = 0;
+        }
+    }
+
+    protected Callback callback;
+
+    /**
+     * 对 raw[offset, offset + length) 进行拆包
+     * @param raw 缓冲区
+     * @param offset 未消费数据起始位置
+     * @param length 未消费数据长度
+     * @param frames 输出，写入本次找到的全部帧
+     */
+    public abstract void split(byte[] raw, int offset, int length, Frames frames);
+
+    /**
+     * 丢弃扫描进度等内部状态，缓冲区被清空时调用
+     */
+    public void reset() {
+    }
+
+}
@@ -0,0 +1,1504 @@
+package tech.yaog.utils.aioclient;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+
+import tech.yaog.utils.aioclient.buffer.ByteBufferPool;
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+import tech.yaog.utils.aioclient.buffer.ReceiveBuffer;
+import tech.yaog.utils.aioclient.executor.KeyedExecutor;
+import tech.yaog.utils.aioclient.executor.SerialExecutor;
+import tech.yaog.utils.aioclient.io.AIO;
+import tech.yaog.utils.aioclient.io.NIO;
+import tech.yaog.utils.aioclient.metrics.ClientMetrics;
+import tech.yaog.utils.aioclient.io.IO;
+import tech.yaog.utils.aioclient.splitter.LengthFieldSplitter;
+import tech.yaog.utils.aioclient.splitter.TimestampSplitter;
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * AIO 客户端
+ *
+ * 1. 通过 decoders encoders handlers 设置编码器、解码器、处理器
+ * 2. 消息类型较多时可以通过 decoderRouter 按帧头路由，每帧只解码一次
+ * 3. 同时添加父类和子类的编码器、处理器时，子类的优先；编码器使用第一个返回非空结果的，处理器全部调用
+ */
+public class Bootstrap {
+
+    private Map<Class<?>, AbstractDecoder<?>> decoders = new HashMap<>();
+    private volatile DecoderRouter decoderRouter;
+    private Compression compression;
+    private final TypeDispatcher<AbstractBufferEncoder<?>> encoders = new TypeDispatcher<>();
+    private final TypeDispatcher<AbstractHandler<?>> handlers = new TypeDispatcher<>();
+    private AbstractSplitter splitter = new TimestampSplitter(10);
+    private Event event = null;
+    private ExceptionHandler exceptionHandler = new ExceptionHandler() {
+        @Override
+        public void onExceptionTriggered(Throwable t) {
+            t.printStackTrace();
+        }
+    };
+
+    private int connTimeout = 30000;
+    private boolean keepAlive = false;
+    private int maxBatchMessages = 64;
+    private int maxBatchBytes = 64 * 1024;
+    private long flushDelayNanos = 0;
+    private int maxPendingMessages = 10000;
+    private long maxPendingBytes = Long.MAX_VALUE;
+    private long lowWaterMark = 32 * 1024;
+    private long highWaterMark = 64 * 1024;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+    private long blockTimeoutNanos = 0;
+    private SizeEstimator sizeEstimator = new SizeEstimator() {
+        @Override
+        public int size(Object msg) {
+            if (msg instanceof byte[]) {
+                return ((byte[]) msg).length;
+            }
+            if (msg instanceof CharSequence) {
+                return ((CharSequence) msg).length();
+            }
+            if (msg instanceof ByteBuffer) {
+                return ((ByteBuffer) msg).remaining();
+            }
+            return encodedSizeHint(msg);
+        }
+    };
+
+    public interface Event {
+        void onConnected();
+        void onDisconnected();
+        void onSent();
+        void onReceived();
+
+        /**
+         * 待发送数据量越过高水位时变为不可写，回落到低水位以下时恢复可写
+         */
+        default void onWritabilityChanged(boolean writable) {
+        }
+
+        /**
+         * 超过设定时间没有读到或写出数据，在处理器线程池中回调
+         */
+        default void onIdle(IdleState state) {
+        }
+    }
+
+    public enum IdleState {
+        /**
+         * 一段时间内没有收到数据
+         */
+        READER_IDLE,
+        /**
+         * 一段时间内没有写出数据
+         */
+        WRITER_IDLE,
+        /**
+         * 一段时间内既没有收到也没有写出数据
+         */
+        ALL_IDLE
+    }
+
+    /**
+     * 发送队列超出预算时的处理方式
+     */
+    public enum OverflowPolicy {
+        /**
+         * 阻塞 send 直到有空间或超时，超时返回 false。
+         * 连接断开时队列不会再减少，此时不等待，直接返回 false
+         */
+        BLOCK,
+        /**
+         * send 立即返回 false
+         */
+        REJECT,
+        /**
+         * 丢弃队列中最早的消息
+         */
+        DROP_OLDEST
+    }
+
+    /**
+     * 估算消息编码后的字节数，用于发送预算和水位计算。
+     * 默认按 byte[]、CharSequence、ByteBuffer 的长度计算，其他类型取编码器的 {@link AbstractBufferEncoder#sizeHint}；
+     * 只实现了 {@link AbstractEncoder#encode(Object)} 的编码器没有估计值，按 0 计算，需要字节预算时应自行设置
+     */
+    public interface SizeEstimator {
+        int size(Object msg);
+    }
+
+    /**
+     * 处理器的执行方式
+     */
+    public enum DispatchMode {
+        /**
+         * 每条消息单独提交到线程池，不保证顺序（默认）
+         */
+        UNORDERED,
+        /**
+         * 直接在 io 线程上执行，延迟最低，处理器不能阻塞。
+         * 按时间断包（{@link TimestampSplitter}）超时得到的帧在线程池上执行
+         */
+        INLINE,
+        /**
+         * 在线程池上按接收顺序逐条执行
+         */
+        SERIAL,
+        /**
+         * 按 {@link KeyExtractor} 取出的键保序，键相同的按接收顺序执行，键不同的可以并行
+         */
+        KEYED
+    }
+
+    /**
+     * 从解码后的消息中取出用于保序的键
+     */
+    public interface KeyExtractor {
+        Object key(Object msg);
+    }
+
+    /**
+     * 从消息中取出用于匹配请求与应答的标识，不是请求/应答的消息返回 null
+     */
+    public interface CorrelationExtractor {
+        Object correlationId(Object msg);
+    }
+
+    public interface ExceptionHandler {
+        void onExceptionTriggered(Throwable t);
+    }
+
+    public Bootstrap onEvent(Event eventListener) {
+        event = eventListener;
+        return this;
+    }
+
+    public Bootstrap exceptionHandler(ExceptionHandler exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+        return this;
+    }
+
+    /**
+     * 连接意外断开后自动重连，不需要再自己调用 disconnect。
+     * 重连间隔从 initialDelay 开始每次翻倍，不超过 maxDelay，并在 [间隔/2, 间隔] 内随机抖动，避免大量客户端同时重连。
+     * 重连时沿用首次解析得到的 IPv4 地址，发送队列中尚未写出的消息在重连后继续发送
+     * @param initialDelay 首次重连间隔（毫秒）
+     * @param maxDelay 最大重连间隔（毫秒）
+     * @param maxAttempts 最多连续重连次数，0 为不限
+     */
+    public Bootstrap autoReconnect(long initialDelay, long maxDelay, int maxAttempts) {
+        if (initialDelay <= 0 || maxDelay < initialDelay || maxAttempts < 0) {
+            throw new IllegalArgumentException("invalid reconnect policy");
+        }
+        this.reconnectInitialDelay = initialDelay;
+        this.reconnectMaxDelay = maxDelay;
+        this.reconnectMaxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * 空闲检测，超时后回调 {@link Event#onIdle}，均为毫秒，0 为不检测。
+     * 所有连接共用一个精度 100ms 的定时线程，回调最多晚一个 tick
+     */
+    public Bootstrap idleTimeout(long readerIdle, long writerIdle, long allIdle) {
+        this.readerIdleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(readerIdle, 0));
+        this.writerIdleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(writerIdle, 0));
+        this.allIdleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(allIdle, 0));
+        return this;
+    }
+
+    /**
+     * 写空闲时自动发送的心跳，需要是已编码好的数据，需同时通过 idleTimeout 设置写空闲时间
+     */
+    public Bootstrap heartbeat(byte[] heartbeat) {
+        this.heartbeat = heartbeat;
+        return this;
+    }
+
+    /**
+     * 记录收发、队列及编解码耗时等指标，不设置时不记录。
+     * 同一个 ClientMetrics 可以在多个 Bootstrap 间共用以汇总，需在连接前设置
+     */
+    public Bootstrap metrics(ClientMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    public Bootstrap connTimeout(int connTimeout) {
+        this.connTimeout = connTimeout;
+        return this;
+    }
+
+    public Bootstrap keepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    /**
+     * 发送线程每次最多取出 maxMessages 条消息，编码后合并成不超过约 maxBytes 字节的数据一次写出
+     */
+    public Bootstrap sendBatch(int maxMessages, int maxBytes) {
+        if (maxMessages <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("batch limits must be positive");
+        }
+        this.maxBatchMessages = maxMessages;
+        this.maxBatchBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * 延迟发送（应用层的 Nagle 算法）。
+     * 消息最多在队列中等待 maxLatency 毫秒以便与后续消息合并发送，攒满一批时立即发送。
+     * 0 为关闭（默认），有消息即发送
+     */
+    public Bootstrap flushDelay(long maxLatency) {
+        this.flushDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxLatency, 0));
+        return this;
+    }
+
+    /**
+     * 发送预算，排队中的消息数不超过 maxMessages，排队及 io 中尚未写出的字节数不超过 maxBytes。
+     * 默认 10000 条，字节数不限
+     */
+    public Bootstrap outboundBudget(int maxMessages, long maxBytes) {
+        if (maxMessages <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("budget must be positive");
+        }
+        this.maxPendingMessages = maxMessages;
+        this.maxPendingBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * 可写状态的高低水位（字节），默认 32KB / 64KB
+     */
+    public Bootstrap writeBufferWaterMark(long low, long high) {
+        if (low < 0 || high < low) {
+            throw new IllegalArgumentException("invalid water mark: " + low + ", " + high);
+        }
+        this.lowWaterMark = low;
+        this.highWaterMark = high;
+        return this;
+    }
+
+    public Bootstrap overflowPolicy(OverflowPolicy policy) {
+        return overflowPolicy(policy, 0);
+    }
+
+    /**
+     * @param blockTimeout BLOCK 模式下 send 最长阻塞时间（毫秒），0 为一直等待
+     */
+    public Bootstrap overflowPolicy(OverflowPolicy policy, long blockTimeout) {
+        this.overflowPolicy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(blockTimeout, 0));
+        return this;
+    }
+
+    public Bootstrap dispatchMode(DispatchMode dispatchMode) {
+        this.dispatchMode = dispatchMode;
+        return this;
+    }
+
+    /**
+     * 按键保序执行处理器，相当于 dispatchMode(KEYED)
+     * @param stripes 并行的分片数
+     */
+    public Bootstrap dispatchMode(KeyExtractor keyExtractor, int stripes) {
+        this.dispatchMode = DispatchMode.KEYED;
+        this.keyExtractor = keyExtractor;
+        if (executor != null && stripes != keyStripes) {
+            keyedExecutor = new KeyedExecutor(executor, stripes);
+        }
+        this.keyStripes = stripes;
+        return this;
+    }
+
+    /**
+     * 执行处理器的线程池，可以在多个 Bootstrap 间共用。
+     * 不设置时每个 Bootstrap 创建自己的线程池
+     */
+    public Bootstrap executor(Executor executor) {
+        this.executor = executor;
+        // 保序队列跟随线程池创建，重连时沿用，未执行完的任务与新连接的任务仍按顺序执行
+        serialExecutor = new SerialExecutor(executor);
+        keyedExecutor = new KeyedExecutor(executor, keyStripes);
+        return this;
+    }
+
+    /**
+     * 设置请求与应答的匹配方式，用于 {@link #request(Object, long)}
+     * @param outbound 从发出的请求中取标识
+     * @param inbound 从解码后的应答中取标识
+     */
+    public Bootstrap correlation(CorrelationExtractor outbound, CorrelationExtractor inbound) {
+        this.outboundCorrelation = outbound;
+        this.inboundCorrelation = inbound;
+        return this;
+    }
+
+    public Bootstrap sizeEstimator(SizeEstimator sizeEstimator) {
+        this.sizeEstimator = sizeEstimator;
+        return this;
+    }
+
+    public Bootstrap addDecoder(AbstractDecoder<?> decoder) {
+        Type[] types = ((ParameterizedType) decoder.getClass().getGenericSuperclass()).getActualTypeArguments();
+        if (types.length == 1 && types[0] instanceof Class) {
+            Class typeClazz = (Class)types[0];
+            decoders.put(typeClazz, decoder);
+        }
+        return this;
+    }
+
+    public Bootstrap decoders(AbstractDecoder<?>... decoders) {
+        this.decoders.clear();
+        for (AbstractDecoder<?> decoder : decoders) {
+            addDecoder(decoder);
+        }
+        return this;
+    }
+
+    /**
+     * 按消息类型路由解码，设置后每帧只交给一个解码器，不再使用 decoders 中的解码器
+     */
+    public Bootstrap decoderRouter(DecoderRouter decoderRouter) {
+        this.decoderRouter = decoderRouter;
+        return this;
+    }
+
+    /**
+     * 在编码之后、解码之前压缩/解压每条消息，并由压缩阶段写入长度字段，详见 {@link Compression}。
+     * 拆包器必须是与长度字段一致的 {@link LengthFieldSplitter}（默认 4 字节大端，去掉长度字段），
+     * 已设置的 LengthFieldSplitter 不一致时抛出 IllegalArgumentException，其他拆包器在连接时报告异常
+     */
+    public Bootstrap compression(Compression compression) {
+        if (compression != null && splitter instanceof LengthFieldSplitter) {
+            compression.checkSplitter(splitter);
+        }
+        this.compression = compression;
+        return this;
+    }
+
+    public Bootstrap addEncoder(AbstractEncoder<?> encoder) {
+        Type[] types = ((ParameterizedType) encoder.getClass().getGenericSuperclass()).getActualTypeArguments();
+        if (types.length == 1 && types[0] instanceof Class) {
+            Class typeClazz = (Class)types[0];
+            encoders.put(typeClazz, AbstractBufferEncoder.adapt(encoder));
+        }
+        return this;
+    }
+
+    public Bootstrap encoders(AbstractEncoder<?>... encoders) {
+        this.encoders.clear();
+        for (AbstractEncoder<?> encoder : encoders) {
+            addEncoder(encoder);
+        }
+        return this;
+    }
+
+    public Bootstrap addHandler(AbstractHandler<?> handler) {
+        Type[] types = ((ParameterizedType) handler.getClass().getGenericSuperclass()).getActualTypeArguments();
+        if (types.length == 1 && types[0] instanceof Class) {
+            Class typeClazz = (Class)types[0];
+            handlers.put(typeClazz, handler);
+        }
+        return this;
+    }
+
+    public Bootstrap handlers(AbstractHandler<?>... handlers) {
+        this.handlers.clear();
+        for (AbstractHandler<?> handler : handlers) {
+            addHandler(handler);
+        }
+        return this;
+    }
+
+    public Bootstrap ioClass(Class<? extends IO> ioClass) {
+        this.ioClass = ioClass;
+        return this;
+    }
+
+    public Bootstrap splitter(AbstractSplitter splitter) {
+        if (compression != null) {
+            compression.checkSplitter(splitter);
+        }
+        this.splitter = splitter;
+        return this;
+    }
+
+    private Thread senderThread;
+    private DispatchMode dispatchMode = DispatchMode.UNORDERED;
+    private KeyExtractor keyExtractor;
+    private int keyStripes = 16;
+    private Executor executor;
+    private SerialExecutor serialExecutor;
+    private KeyedExecutor keyedExecutor;
+    /**
+     * 保证多个线程触发拆包时帧按顺序分发
+     */
+    private final Object frameLock = new Object();
+    private final Object bufferLock = new Object();
+    private final ReceiveBuffer buffer = new ReceiveBuffer();
+    private final AbstractSplitter.Frames frames = new AbstractSplitter.Frames();
+    private final Object sendLock = new Object();
+    private IO io;
+    private volatile boolean connected;
+    private ClientMetrics metrics;
+    private long readerIdleNanos;
+    private long writerIdleNanos;
+    private long allIdleNanos;
+    private byte[] heartbeat;
+    private volatile long lastReadTime;
+    private volatile long lastWriteTime;
+    private final List<IdleCheck> idleChecks = new ArrayList<>();
+    private long reconnectInitialDelay = 0;
+    private long reconnectMaxDelay;
+    private int reconnectMaxAttempts;
+    private final Object reconnectLock = new Object();
+    private String remote;
+    private volatile String resolvedRemote;
+    /**
+     * 由 disconnect 主动断开，不再重连
+     */
+    private volatile boolean closed = true;
+    private int reconnectAttempts;
+    private HashedWheelTimer.Timeout reconnectTimeout;
+    private CorrelationExtractor outboundCorrelation;
+    private CorrelationExtractor inboundCorrelation;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> pendingRequests = new ConcurrentHashMap<>();
+    private Class<? extends IO> ioClass = autoDetect();
+
+    private final Queue<Object> toSendList = new ArrayDeque<>();
+    /**
+     * 队列中消息的估算字节数
+     */
+    private long queuedBytes;
+    private boolean writable = true;
+    /**
+     * 队列中最早一条消息的入队时间
+     */
+    private long oldestQueued;
+
+    private IO.Callback callback = new IO.Callback() {
+        @Override
+        public void onReceived(byte[] data) {
+            onReceived(ByteBuffer.wrap(data));
+        }
+
+        @Override
+        public void onReceived(ByteBuffer data) {
+            lastReadTime = System.nanoTime();
+            synchronized (bufferLock) {
+                // 接收数据只在这里拷贝一次，之后的拆包都在累积缓冲区上进行
+                buffer.write(data);
+            }
+            split();
+            if (event != null) {
+                event.onReceived();
+            }
+        }
+
+        @Override
+        public void onWritten(int bytes) {
+            lastWriteTime = System.nanoTime();
+            Boolean changed;
+            synchronized (sendLock) {
+                changed = updateWritability();
+                sendLock.notifyAll();
+            }
+            fireWritabilityChanged(changed);
+        }
+
+        @Override
+        public void onConnected() {
+            synchronized (sendLock) {
+                connected = true;
+                sendLock.notifyAll();
+            }
+            startIdleCheck();
+            io.beginRead();
+            if (event != null) {
+                event.onConnected();
+            }
+        }
+
+        @Override
+        public void onDisconnected() {
+            setDisconnected();
+            stopIdleCheck();
+            if (event != null) {
+                event.onDisconnected();
+            }
+            if (reconnectInitialDelay > 0 && !closed) {
+                scheduleReconnect();
+            }
+        }
+
+        @Override
+        public void onException(Throwable t) {
+            reportException(t);
+        }
+    };
+
+    private final Runnable splitTask = new Runnable() {
+        @Override
+        public void run() {
+            split();
+        }
+    };
+
+    /**
+     * 对接收缓冲区执行一次拆包，并依次处理本次得到的全部帧。
+     * 帧直接在接收缓冲区上解码，全部处理完才消费，期间不拷贝
+     */
+    private void split() {
+        synchronized (frameLock) {
+            synchronized (bufferLock) {
+                frames.clear();
+                splitter.split(buffer.array(), buffer.readerIndex(), buffer.readableBytes(), frames);
+                int size = frames.size();
+                if (size == 0) {
+                    return;
+                }
+                byte[] array = buffer.array();
+                for (int i = 0;i<size;i++) {
+                    int start = buffer.readerIndex() + frames.offset(i);
+                    int length = frames.length(i);
+                    // 先消费再处理，解码或处理出错时该帧丢弃，不会在下次拆包时重复处理。
+                    // 持有 bufferLock 期间不会写入新数据，数组中的帧内容保持不变
+                    buffer.skip(frames.offset(i) + length + frames.skip(i));
+                    if (length > 0) {
+                        onFrame(array, start, length);
+                    }
+                }
+            }
+        }
+    }
+
+    private void onFrame(byte[] frame, int offset, int length) {
+        if (metrics != null) {
+            metrics.onFrame();
+        }
+        Compression compression = this.compression;
+        if (compression != null) {
+            if (compression.isDeflated(frame, offset)) {
+                try {
+                    frame = compression.inflate(frame, offset, length);
+                } catch (DataFormatException e) {
+                    reportException(e);
+                    return;
+                }
+                offset = 0;
+                length = frame.length;
+            }
+            else {
+                // 跳过标志字节
+                offset++;
+                length--;
+            }
+        }
+        DecoderRouter router = decoderRouter;
+        if (router != null) {
+            try {
+                AbstractDecoder<?> decoder = router.select(frame, offset, length);
+                if (decoder != null) {
+                    dispatch(decode(decoder, frame, offset, length));
+                }
+            }
+            catch (RuntimeException e) {
+                reportException(e);
+            }
+            return;
+        }
+        for (AbstractDecoder<?> decoder : decoders.values()) {
+            // 一个解码器出错不影响其他解码器
+            try {
+                dispatch(decode(decoder, frame, offset, length));
+            }
+            catch (RuntimeException e) {
+                reportException(e);
+            }
+        }
+    }
+
+    private Object decode(AbstractDecoder<?> decoder, byte[] frame, int offset, int length) {
+        ClientMetrics metrics = this.metrics;
+        if (metrics == null) {
+            return decoder.decode(frame, offset, length);
+        }
+        long start = System.nanoTime();
+        Object obj = decoder.decode(frame, offset, length);
+        if (obj != null) {
+            metrics.onDecoded(System.nanoTime() - start);
+        }
+        return obj;
+    }
+
+    private void dispatch(final Object obj) {
+        if (obj == null) {
+            return;
+        }
+        if (obj instanceof AbstractFlyweight && dispatchMode != DispatchMode.INLINE) {
+            // 接收缓冲区在交给线程池后就会被复用
+            ((AbstractFlyweight) obj).detach();
+        }
+        if (completeRequest(obj)) {
+            return;
+        }
+        if (dispatchMode == DispatchMode.INLINE) {
+            handle(obj);
+            return;
+        }
+        final ClientMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.onHandlerBacklog(1);
+        }
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                if (metrics != null) {
+                    metrics.onHandlerBacklog(-1);
+                }
+                handle(obj);
+            }
+        };
+        switch (dispatchMode) {
+            case SERIAL:
+                serialExecutor.execute(task);
+                break;
+            case KEYED:
+                keyedExecutor.execute(keyExtractor.key(obj), task);
+                break;
+            default:
+                executor.execute(task);
+                break;
+        }
+    }
+
+    private void handle(Object obj) {
+        ClientMetrics metrics = this.metrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        for (AbstractHandler handler : handlers.lookup(obj.getClass())) {
+            try {
+                handler.handle(obj);
+            }
+            catch (Exception e) {
+                reportException(e);
+            }
+        }
+        if (metrics != null) {
+            metrics.onHandled(System.nanoTime() - start);
+        }
+    }
+
+    private void reportException(Throwable t) {
+        if (metrics != null) {
+            metrics.onException();
+        }
+        exceptionHandler.onExceptionTriggered(t);
+    }
+
+    /**
+     * 根据 Android 版本自动决定使用的 io 接口.
+     * Android O 以上及非 Android 环境使用 AIO， 否则用 NIO。
+     * 可以自己指定接口，也可以自己实现
+     * @return io 接口类
+     */
+    public static Class<? extends IO> autoDetect() {
+        int sdk = androidSdkInt();
+        if (sdk < 0 || sdk >= 26) {
+            // 非 Android 环境或 Android O 以上
+            return AIO.class;
+        }
+        return NIO.class;
+    }
+
+    /**
+     * 通过反射读取 android.os.Build.VERSION.SDK_INT，不依赖 Android
+     * @return 非 Android 环境返回 -1
+     */
+    private static int androidSdkInt() {
+        try {
+            return Class.forName("android.os.Build$VERSION").getField("SDK_INT").getInt(null);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 发送请求并异步等待应答，可以同时有多个未完成的请求。
+     * 应答在接收线程上直接完成 future，不再交给处理器；超时在处理器线程池中完成 future，不占用共享的定时线程。
+     * 需先通过 {@link #correlation} 设置匹配方式；Android 上需要 API 24 (N) 以上
+     * @param timeout 超时时间（毫秒），超时后 future 以 TimeoutException 结束
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> request(Object msg, long timeout) {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        if (outboundCorrelation == null || inboundCorrelation == null) {
+            future.completeExceptionally(new IllegalStateException("correlation extractors not set"));
+            return (CompletableFuture<R>) future;
+        }
+        final Object id = outboundCorrelation.correlationId(msg);
+        if (id == null) {
+            future.completeExceptionally(new IllegalArgumentException("no correlation id in " + msg));
+            return (CompletableFuture<R>) future;
+        }
+        if (pendingRequests.putIfAbsent(id, future) != null) {
+            future.completeExceptionally(new IllegalStateException("duplicate correlation id " + id));
+            return (CompletableFuture<R>) future;
+        }
+        final HashedWheelTimer.Timeout timer = HashedWheelTimer.shared().newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                final TimeoutException e = new TimeoutException("no reply for " + id);
+                Executor executor = Bootstrap.this.executor;
+                if (executor != null) {
+                    try {
+                        executor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                future.completeExceptionally(e);
+                            }
+                        });
+                        return;
+                    } catch (RejectedExecutionException ignored) {
+                        // 线程池已关闭，直接在定时线程上结束
+                    }
+                }
+                future.completeExceptionally(e);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        // 无论应答、超时、取消还是失败，都从等待表中移除
+        future.whenComplete(new BiConsumer<Object, Throwable>() {
+            @Override
+            public void accept(Object reply, Throwable t) {
+                pendingRequests.remove(id, future);
+                timer.cancel();
+            }
+        });
+        if (!send(msg)) {
+            future.completeExceptionally(new IllegalStateException("outbound queue full"));
+        }
+        return (CompletableFuture<R>) future;
+    }
+
+    /**
+     * @return 该消息是某个请求的应答并已完成对应的 future
+     */
+    private boolean completeRequest(Object obj) {
+        if (inboundCorrelation == null || pendingRequests.isEmpty()) {
+            return false;
+        }
+        Object id = inboundCorrelation.correlationId(obj);
+        if (id == null) {
+            return false;
+        }
+        CompletableFuture<Object> future = pendingRequests.remove(id);
+        if (future == null) {
+            return false;
+        }
+        if (obj instanceof AbstractFlyweight) {
+            ((AbstractFlyweight) obj).detach();
+        }
+        future.complete(obj);
+        return true;
+    }
+
+    /**
+     * 发送消息
+     * @return 发送队列超出预算且按策略未能入队时返回 false
+     */
+    public boolean send(Object msg) {
+        int size = sizeEstimator.size(msg);
+        Boolean changed;
+        synchronized (sendLock) {
+            if (overBudget(size)) {
+                switch (overflowPolicy) {
+                    case BLOCK:
+                        long deadline = System.nanoTime() + blockTimeoutNanos;
+                        try {
+                            while (overBudget(size)) {
+                                if (!connected) {
+                                    return false;
+                                }
+                                if (blockTimeoutNanos <= 0) {
+                                    sendLock.wait();
+                                    continue;
+                                }
+                                long wait = deadline - System.nanoTime();
+                                if (wait <= 0) {
+                                    return false;
+                                }
+                                TimeUnit.NANOSECONDS.timedWait(sendLock, wait);
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        while (overBudget(size) && !toSendList.isEmpty()) {
+                            queuedBytes -= queuedSize(toSendList.poll());
+                            if (metrics != null) {
+                                metrics.onQueued(-1);
+                            }
+                        }
+                        break;
+                    default:
+                        return false;
+                }
+            }
+            if (toSendList.isEmpty()) {
+                oldestQueued = System.nanoTime();
+            }
+            toSendList.offer(msg);
+            queuedBytes += size;
+            if (metrics != null) {
+                metrics.onQueued(1);
+            }
+            changed = updateWritability();
+            sendLock.notifyAll();
+        }
+        fireWritabilityChanged(changed);
+        return true;
+    }
+
+    /**
+     * 标记为已断开，并唤醒因预算阻塞的 send
+     */
+    private void setDisconnected() {
+        synchronized (sendLock) {
+            connected = false;
+            sendLock.notifyAll();
+        }
+    }
+
+    /**
+     * 按编码器的 sizeHint 估算编码后的字节数，没有可用的编码器时返回 0
+     */
+    @SuppressWarnings("unchecked")
+    private int encodedSizeHint(Object msg) {
+        for (AbstractBufferEncoder encoder : encoders.lookup(msg.getClass())) {
+            int hint = encoder.sizeHint(msg);
+            if (hint > 0) {
+                return hint;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 当前是否可写，不可写时生产者应暂停发送
+     */
+    public boolean isWritable() {
+        synchronized (sendLock) {
+            return writable;
+        }
+    }
+
+    /**
+     * 连接是否已建立且未断开
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * 是否开启了自动重连
+     */
+    public boolean isAutoReconnect() {
+        return reconnectInitialDelay > 0;
+    }
+
+    public int pendingMessages() {
+        synchronized (sendLock) {
+            return toSendList.size();
+        }
+    }
+
+    /**
+     * 排队中及 io 中尚未写出的字节数
+     */
+    public long pendingBytes() {
+        synchronized (sendLock) {
+            return pendingBytesLocked();
+        }
+    }
+
+    private long pendingBytesLocked() {
+        IO io = this.io;
+        return queuedBytes + (io != null ? io.pendingWriteBytes() : 0);
+    }
+
+    private boolean overBudget(int size) {
+        if (toSendList.size() >= maxPendingMessages) {
+            return true;
+        }
+        long pending = pendingBytesLocked();
+        // 没有积压时总是允许发送，避免单条超大消息永远无法发出
+        return pending > 0 && pending + size > maxPendingBytes;
+    }
+
+    /**
+     * 需持有 sendLock
+     * @return 可写状态变化时返回新状态，否则返回 null
+     */
+    private Boolean updateWritability() {
+        long pending = pendingBytesLocked();
+        if (writable && pending > highWaterMark) {
+            writable = false;
+            return Boolean.FALSE;
+        }
+        if (!writable && pending < lowWaterMark) {
+            writable = true;
+            return Boolean.TRUE;
+        }
+        return null;
+    }
+
+    private void fireWritabilityChanged(Boolean changed) {
+        if (changed != null && event != null) {
+            event.onWritabilityChanged(changed);
+        }
+    }
+
+    public void disconnect() {
+        setDisconnected();
+        stopIdleCheck();
+        synchronized (reconnectLock) {
+            closed = true;
+            if (reconnectTimeout != null) {
+                reconnectTimeout.cancel();
+                reconnectTimeout = null;
+            }
+        }
+        for (CompletableFuture<Object> future : pendingRequests.values()) {
+            future.completeExceptionally(new IOException("disconnected"));
+        }
+        release();
+    }
+
+    /**
+     * 关闭当前 io 并停止发送线程，发送队列保留
+     */
+    private void release() {
+        IO io = this.io;
+        if (io == null) {
+            return;
+        }
+        io.stopRead();
+        Thread senderThread = this.senderThread;
+        if (senderThread != null) {
+            senderThread.interrupt();
+        }
+        io.disconnect();
+        synchronized (bufferLock) {
+            // 释放拆包器登记在定时器上的任务，残留的半包数据已无意义
+            splitter.reset();
+            buffer.clear();
+        }
+        if (senderThread != null && senderThread != Thread.currentThread()) {
+            try {
+                // 等待正在写出的一批消息结束，避免与新的发送线程交错
+                senderThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void startIdleCheck() {
+        long now = System.nanoTime();
+        lastReadTime = now;
+        lastWriteTime = now;
+        synchronized (idleChecks) {
+            stopIdleCheck();
+            if (readerIdleNanos > 0) {
+                idleChecks.add(new IdleCheck(IdleState.READER_IDLE, readerIdleNanos));
+            }
+            if (writerIdleNanos > 0) {
+                idleChecks.add(new IdleCheck(IdleState.WRITER_IDLE, writerIdleNanos));
+            }
+            if (allIdleNanos > 0) {
+                idleChecks.add(new IdleCheck(IdleState.ALL_IDLE, allIdleNanos));
+            }
+            for (IdleCheck check : idleChecks) {
+                check.schedule(check.timeoutNanos);
+            }
+        }
+    }
+
+    private void stopIdleCheck() {
+        synchronized (idleChecks) {
+            for (IdleCheck check : idleChecks) {
+                check.cancel();
+            }
+            idleChecks.clear();
+        }
+    }
+
+    /**
+     * 一种空闲状态的检测，只在到期时检查一次最近读写时间，未空闲则按剩余时间重新登记，
+     * 不随每次读写重置定时器
+     */
+    private class IdleCheck implements Runnable {
+        final IdleState state;
+        final long timeoutNanos;
+        private HashedWheelTimer.Timeout timeout;
+        private boolean cancelled;
+
+        IdleCheck(IdleState state, long timeoutNanos) {
+            this.state = state;
+            this.timeoutNanos = timeoutNanos;
+        }
+
+        synchronized void schedule(long delayNanos) {
+            if (!cancelled) {
+                // 空闲检测不需要毫秒精度，放在低精度定时器上与其他连接的检测一起处理
+                timeout = HashedWheelTimer.coarse().newTimeout(this, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+
+        @Override
+        public void run() {
+            long last;
+            switch (state) {
+                case READER_IDLE:
+                    last = lastReadTime;
+                    break;
+                case WRITER_IDLE:
+                    last = lastWriteTime;
+                    break;
+                default:
+                    last = Math.max(lastReadTime, lastWriteTime);
+                    break;
+            }
+            long remaining = timeoutNanos - (System.nanoTime() - last);
+            if (remaining > 0) {
+                schedule(remaining);
+                return;
+            }
+            schedule(timeoutNanos);
+            if (state == IdleState.WRITER_IDLE && heartbeat != null) {
+                sendHeartbeat();
+            }
+            if (event != null) {
+                // 不在定时线程上执行用户回调
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        event.onIdle(state);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * 心跳直接放入发送队列，不受发送预算限制，队列中已有数据时不发送
+     */
+    private void sendHeartbeat() {
+        synchronized (sendLock) {
+            if (!toSendList.isEmpty()) {
+                return;
+            }
+            oldestQueued = System.nanoTime();
+            toSendList.offer(new Heartbeat(heartbeat));
+            if (metrics != null) {
+                metrics.onQueued(1);
+            }
+            sendLock.notifyAll();
+        }
+    }
+
+    /**
+     * 计入 queuedBytes 的大小。心跳不计入，也不交给用户的 SizeEstimator
+     */
+    private int queuedSize(Object msg) {
+        return msg instanceof Heartbeat ? 0 : sizeEstimator.size(msg);
+    }
+
+    private static class Heartbeat {
+        final byte[] bytes;
+
+        Heartbeat(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    private void scheduleReconnect() {
+        long delay;
+        synchronized (reconnectLock) {
+            if (closed || reconnectTimeout != null) {
+                return;
+            }
+            reconnectAttempts++;
+            if (reconnectMaxAttempts > 0 && reconnectAttempts > reconnectMaxAttempts) {
+                reportException(new IOException("failed to reconnect to " + remote + " after " + reconnectMaxAttempts + " attempts"));
+                return;
+            }
+            long base = reconnectInitialDelay << Math.min(reconnectAttempts - 1, 30);
+            if (base <= 0 || base > reconnectMaxDelay) {
+                base = reconnectMaxDelay;
+            }
+            delay = base / 2 + (long) (Math.random() * (base / 2 + 1));
+            reconnectTimeout = HashedWheelTimer.shared().newTimeout(new Runnable() {
+                @Override
+                public void run() {
+                    // 关闭旧连接及解析地址可能阻塞，不占用定时线程
+                    executor.execute(reconnectTask);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private final Runnable reconnectTask = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (reconnectLock) {
+                reconnectTimeout = null;
+                if (closed) {
+                    return;
+                }
+            }
+            reopen(new IO.ConnectListener() {
+                @Override
+                public void onComplete(boolean connected) {
+                    if (!connected) {
+                        scheduleReconnect();
+                    }
+                }
+            });
+        }
+    };
+
+    /**
+     * 立即按上次连接的地址重连，不等待重连间隔。
+     * 与 disconnect 后再 connect 不同，发送队列与未完成的请求都保留。
+     * 从未连接过或已调用 disconnect 时直接通知失败
+     */
+    public void reconnect(final IO.ConnectListener listener) {
+        synchronized (reconnectLock) {
+            if (closed) {
+                if (listener != null) {
+                    listener.onComplete(false);
+                }
+                return;
+            }
+            if (reconnectTimeout != null) {
+                reconnectTimeout.cancel();
+                reconnectTimeout = null;
+            }
+        }
+        reopen(listener);
+    }
+
+    /**
+     * 关闭当前 io 后重新连接，连上后启动发送线程
+     */
+    private void reopen(final IO.ConnectListener listener) {
+        release();
+        if (resolvedRemote == null) {
+            resolvedRemote = resolve(remote);
+        }
+        if (!prepare()) {
+            if (listener != null) {
+                listener.onComplete(false);
+            }
+            return;
+        }
+        io.connect(resolvedRemote, new IO.ConnectListener() {
+            @Override
+            public void onComplete(boolean connected) {
+                if (connected) {
+                    synchronized (reconnectLock) {
+                        reconnectAttempts = 0;
+                    }
+                    startSender(remote);
+                }
+                if (listener != null) {
+                    listener.onComplete(connected);
+                }
+            }
+        });
+    }
+
+    /**
+     * 解析地址中的主机名，得到 IPv4 地址时换成 ip:port，否则原样返回
+     */
+    private static String resolve(String remote) {
+        String[] remoteBlocks = remote.split(":");
+        if (remoteBlocks.length != 2) {
+            return remote;
+        }
+        try {
+            InetAddress address = InetAddress.getByName(remoteBlocks[0].trim());
+            if (address instanceof Inet4Address) {
+                return address.getHostAddress() + ":" + remoteBlocks[1].trim();
+            }
+        } catch (UnknownHostException e) {
+            // 交给 io 重新解析并报告
+        }
+        return remote;
+    }
+
+    private void resetReconnect(String remote) {
+        synchronized (reconnectLock) {
+            this.remote = remote;
+            resolvedRemote = null;
+            closed = false;
+            reconnectAttempts = 0;
+            if (reconnectTimeout != null) {
+                reconnectTimeout.cancel();
+                reconnectTimeout = null;
+            }
+        }
+    }
+
+    public boolean connect(String remote) {
+        resetReconnect(remote);
+        if (!prepare()) {
+            return false;
+        }
+
+        boolean ret = io.connect(remote);
+
+        if (!ret) {
+            return false;
+        }
+
+        startSender(remote);
+        return true;
+    }
+
+    /**
+     * 异步连接，不阻塞调用线程，连接结果通过 listener 通知
+     */
+    public void connect(final String remote, final IO.ConnectListener listener) {
+        resetReconnect(remote);
+        if (!prepare()) {
+            if (listener != null) {
+                listener.onComplete(false);
+            }
+            return;
+        }
+        io.connect(remote, new IO.ConnectListener() {
+            @Override
+            public void onComplete(boolean connected) {
+                if (connected) {
+                    startSender(remote);
+                }
+                if (listener != null) {
+                    listener.onComplete(connected);
+                }
+            }
+        });
+    }
+
+    private boolean prepare() {
+        try {
+            io = ioClass.getDeclaredConstructor(IO.Callback.class).newInstance(callback);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+        io.setKeepAlive(keepAlive);
+        io.setConnTimeout(connTimeout);
+        io.setMetrics(metrics);
+        if (executor == null) {
+            executor(new ScheduledThreadPoolExecutor(10));
+        }
+        if (dispatchMode == DispatchMode.KEYED && keyExtractor == null) {
+            reportException(new IllegalStateException("KEYED dispatch requires a KeyExtractor"));
+            return false;
+        }
+        if (compression != null) {
+            try {
+                compression.checkSplitter(splitter);
+            } catch (IllegalArgumentException e) {
+                reportException(e);
+                return false;
+            }
+        }
+        splitter.callback = new AbstractSplitter.Callback() {
+            @Override
+            public void requestSplit() {
+                // 由定时线程触发，解码和处理器交给线程池执行，不占用所有连接共用的定时线程
+                try {
+                    serialExecutor.execute(splitTask);
+                } catch (RejectedExecutionException e) {
+                    reportException(e);
+                }
+            }
+
+            @Override
+            public void onException(Throwable t) {
+                reportException(t);
+            }
+        };
+        return true;
+    }
+
+    private void startSender(String remote) {
+        senderThread = io.newThread(new Runnable() {
+            @Override
+            public void run() {
+                Object[] batch = new Object[maxBatchMessages];
+                OutputBuffer output = new OutputBuffer(ByteBufferPool.heap(), 4096);
+                while (!Thread.interrupted()) {
+                    int count;
+                    try {
+                        count = takeBatch(batch);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    writeBatch(batch, count, output);
+                }
+            }
+        }, remote+"_Send");
+        senderThread.start();
+    }
+
+    /**
+     * 等待并取出一批待发送消息，开启延迟发送时等到攒满一批或最早的消息到达等待上限
+     */
+    private int takeBatch(Object[] batch) throws InterruptedException {
+        synchronized (sendLock) {
+            // 断开期间不取消息，留到重连后由新的发送线程写出
+            while (toSendList.isEmpty() || !connected) {
+                sendLock.wait();
+            }
+            if (flushDelayNanos > 0) {
+                while (toSendList.size() < batch.length) {
+                    long wait = oldestQueued + flushDelayNanos - System.nanoTime();
+                    if (wait <= 0) {
+                        break;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(sendLock, wait);
+                }
+            }
+            int count = 0;
+            Object msg;
+            while (count < batch.length && (msg = toSendList.poll()) != null) {
+                batch[count++] = msg;
+                queuedBytes -= queuedSize(msg);
+            }
+            if (metrics != null) {
+                metrics.onQueued(-count);
+            }
+            if (!toSendList.isEmpty()) {
+                oldestQueued = System.nanoTime();
+            }
+            // 唤醒因预算阻塞的生产者
+            sendLock.notifyAll();
+            return count;
+        }
+    }
+
+    /**
+     * 把一批消息编码后合并写出，累计超过 maxBatchBytes 时先写出已编码部分
+     */
+    private void writeBatch(Object[] batch, int count, OutputBuffer output) {
+        int messages = 0;
+        for (int i = 0;i<count;i++) {
+            Object msg = batch[i];
+            batch[i] = null;
+            int mark = output.size();
+            Compression compression = this.compression;
+            if (compression != null) {
+                // 预留长度字段和标志字节
+                output.ensureWritable(compression.headerLength());
+                output.advance(compression.headerLength());
+            }
+            boolean encoded;
+            if (msg instanceof Heartbeat) {
+                output.write(((Heartbeat) msg).bytes);
+                encoded = true;
+            }
+            else if (metrics != null) {
+                long start = System.nanoTime();
+                encoded = encode(msg, output);
+                if (encoded) {
+                    metrics.onEncoded(System.nanoTime() - start);
+                }
+            }
+            else {
+                encoded = encode(msg, output);
+            }
+            if (!encoded) {
+                output.truncate(mark);
+                continue;
+            }
+            if (compression != null && !compression.compress(output, mark)) {
+                output.truncate(mark);
+                reportException(new IOException("message too long for the length field"));
+                continue;
+            }
+            messages++;
+            if (output.size() >= maxBatchBytes) {
+                flush(messages, output);
+                messages = 0;
+            }
+        }
+        if (messages > 0) {
+            flush(messages, output);
+        }
+    }
+
+    private void flush(int messages, OutputBuffer output) {
+        // 缓冲区连同数据交给 io，写完后由 io 归还到池中
+        io.write(output.detach());
+        // 不是所有 io 都会回调 onWritten（如默认的 write(ByteBuffer)），交给 io 后即视为有写出
+        lastWriteTime = System.nanoTime();
+        if (event != null) {
+            for (int i = 0;i<messages;i++) {
+                event.onSent();
+            }
+        }
+    }
+
+    /**
+     * 用第一个能编码该消息的编码器追加写入 output
+     */
+    @SuppressWarnings("unchecked")
+    private boolean encode(Object msg, OutputBuffer output) {
+        for (AbstractBufferEncoder encoder : encoders.lookup(msg.getClass())) {
+            int mark = output.size();
+            output.ensureWritable(encoder.sizeHint(msg));
+            if (encoder.encode(msg, output)) {
+                return true;
+            }
+            output.truncate(mark);
+        }
+        return false;
+    }
+
+}
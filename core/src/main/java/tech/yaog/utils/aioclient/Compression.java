@@ -0,0 +1,280 @@
+package tech.yaog.utils.aioclient;
+
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+import tech.yaog.utils.aioclient.splitter.LengthFieldSplitter;
+
+/**
+ * 帧压缩，位于编码器/解码器与 io 之间
+ *
+ * 启用后每条消息的格式为 [长度字段][标志字节][消息体]，长度字段为大端整数，值为标志字节与消息体的总长度。
+ * 标志字节的 {@link #FLAG_DEFLATED} 位表示消息体经过 deflate 压缩，其余位保留为 0。
+ * 编码器只需输出消息体，超过阈值且压缩后确实变小时才压缩。
+ * 接收端必须使用与长度字段一致的 LengthFieldSplitter（大端，偏移 0，宽度与长度字段相同，修正量 0，并去掉长度字段），
+ * 设置到 Bootstrap 时以及连接时会检查，不一致时抛出 IllegalArgumentException：
+ * <pre>
+ * bootstrap.compression(new Compression(256).dictionary(dict))
+ *     .splitter(new LengthFieldSplitter(1024 * 1024, 0, 4, 0, 4));
+ * </pre>
+ * 压缩后的数据可能包含任意字节，不能与分隔符拆包一起使用。
+ * 心跳同样作为消息体处理。同一个 Compression 可以在多个 Bootstrap 间共用。
+ * Deflater/Inflater 占用本地内存，放在容量有限的池中复用，超出容量的用完立即 end()，不随发送线程的重建而累积。
+ */
+public class Compression {
+
+    public static final int FLAG_DEFLATED = 0x01;
+    private static final int MAX_RETAINED_SCRATCH = 64 * 1024;
+    /**
+     * 池中最多保留的 Deflater/Inflater 数，同时压缩/解压的线程超过该数时临时创建
+     */
+    private static final int MAX_POOLED = 8;
+
+    private final int threshold;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private byte[] dictionary;
+    private int lengthFieldLength = 4;
+    private int maxFrameLength = 16 * 1024 * 1024;
+
+    private final ArrayDeque<Deflater> deflaters = new ArrayDeque<>();
+    private final ArrayDeque<Inflater> inflaters = new ArrayDeque<>();
+    /**
+     * 压缩/解压的临时输出
+     */
+    private final ThreadLocal<byte[]> scratch = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[4096];
+        }
+    };
+
+    /**
+     * @param threshold 消息体不小于该长度时才尝试压缩
+     */
+    public Compression(int threshold) {
+        this.threshold = Math.max(threshold, 0);
+    }
+
+    /**
+     * 压缩级别，见 {@link Deflater#setLevel(int)}，默认 {@link Deflater#DEFAULT_COMPRESSION}。需在开始使用前设置
+     */
+    public Compression level(int level) {
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * 预置字典，两端必须一致。短消息中常见的字段名、取值放进字典能显著提高压缩率
+     */
+    public Compression dictionary(byte[] dictionary) {
+        this.dictionary = dictionary == null ? null : dictionary.clone();
+        return this;
+    }
+
+    /**
+     * 长度字段宽度，1~4 字节，默认 4。为 0 时不写长度字段，由 io 或其他方式划分帧
+     */
+    public Compression lengthField(int length) {
+        if (length < 0 || length > 4) {
+            throw new IllegalArgumentException("length field must be 0~4 bytes");
+        }
+        this.lengthFieldLength = length;
+        return this;
+    }
+
+    /**
+     * 解压后允许的最大长度，超过时丢弃该帧，默认 16MB
+     */
+    public Compression maxFrameLength(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+        return this;
+    }
+
+    /**
+     * 检查拆包器与长度字段是否一致，长度字段宽度为 0 时不检查
+     */
+    void checkSplitter(AbstractSplitter splitter) {
+        if (lengthFieldLength == 0) {
+            return;
+        }
+        if (splitter instanceof LengthFieldSplitter) {
+            LengthFieldSplitter s = (LengthFieldSplitter) splitter;
+            if (s.getByteOrder() == ByteOrder.BIG_ENDIAN && s.getLengthFieldOffset() == 0 && s.getLengthFieldLength() == lengthFieldLength
+                    && s.getLengthAdjustment() == 0 && s.getInitialBytesToStrip() == lengthFieldLength) {
+                return;
+            }
+        }
+        throw new IllegalArgumentException("compression requires new LengthFieldSplitter(maxFrameLength, 0, "
+                + lengthFieldLength + ", 0, " + lengthFieldLength + ")");
+    }
+
+    /**
+     * 消息体之前需要预留的字节数
+     */
+    int headerLength() {
+        return lengthFieldLength + 1;
+    }
+
+    /**
+     * 处理 out 中从 mark 开始的一条消息：[mark, mark + headerLength()) 为预留的头部，之后到末尾为消息体。
+     * 按需压缩消息体并写入头部
+     * @return 长度超出长度字段的表示范围时返回 false
+     */
+    boolean compress(OutputBuffer out, int mark) {
+        int header = headerLength();
+        int bodyOffset = mark + header;
+        int bodyLength = out.size() - bodyOffset;
+        int flags = 0;
+        if (bodyLength >= threshold && bodyLength > 0) {
+            int deflated = deflate(out.array(), bodyOffset, bodyLength);
+            if (deflated > 0) {
+                out.truncate(bodyOffset);
+                out.write(scratch.get(), 0, deflated);
+                bodyLength = deflated;
+                flags = FLAG_DEFLATED;
+            }
+            trimScratch();
+        }
+        long value = bodyLength + 1L;
+        if (lengthFieldLength > 0 && lengthFieldLength < 4 && value >= 1L << (lengthFieldLength * 8) || value > Integer.MAX_VALUE) {
+            return false;
+        }
+        byte[] array = out.array();
+        for (int i = 0;i<lengthFieldLength;i++) {
+            array[mark + i] = (byte) (value >>> ((lengthFieldLength - 1 - i) * 8));
+        }
+        array[mark + lengthFieldLength] = (byte) flags;
+        return true;
+    }
+
+    /**
+     * 压缩到 scratch 中
+     * @return 压缩后的长度，没有变小时返回 -1
+     */
+    private int deflate(byte[] src, int offset, int length) {
+        byte[] output = scratch.get();
+        if (output.length < length) {
+            output = new byte[length];
+            scratch.set(output);
+        }
+        Deflater deflater = acquireDeflater();
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(src, offset, length);
+            deflater.finish();
+            // 只给与原文等长的空间，放不下说明压缩无益
+            int deflated = 0;
+            while (!deflater.finished() && deflated < length) {
+                int n = deflater.deflate(output, deflated, length - deflated);
+                if (n == 0) {
+                    break;
+                }
+                deflated += n;
+            }
+            return deflater.finished() && deflated < length ? deflated : -1;
+        }
+        finally {
+            releaseDeflater(deflater);
+        }
+    }
+
+    private Deflater acquireDeflater() {
+        Deflater deflater;
+        synchronized (deflaters) {
+            deflater = deflaters.poll();
+        }
+        return deflater != null ? deflater : new Deflater(level);
+    }
+
+    private void releaseDeflater(Deflater deflater) {
+        deflater.reset();
+        synchronized (deflaters) {
+            if (deflaters.size() < MAX_POOLED) {
+                deflaters.push(deflater);
+                return;
+            }
+        }
+        deflater.end();
+    }
+
+    private Inflater acquireInflater() {
+        Inflater inflater;
+        synchronized (inflaters) {
+            inflater = inflaters.poll();
+        }
+        return inflater != null ? inflater : new Inflater();
+    }
+
+    private void releaseInflater(Inflater inflater) {
+        inflater.reset();
+        synchronized (inflaters) {
+            if (inflaters.size() < MAX_POOLED) {
+                inflaters.push(inflater);
+                return;
+            }
+        }
+        inflater.end();
+    }
+
+    /**
+     * 帧（已去掉长度字段）是否经过压缩
+     */
+    boolean isDeflated(byte[] frame, int offset) {
+        return (frame[offset] & FLAG_DEFLATED) != 0;
+    }
+
+    /**
+     * 解压帧（已去掉长度字段）中标志字节之后的消息体
+     */
+    byte[] inflate(byte[] frame, int offset, int length) throws DataFormatException {
+        Inflater inflater = acquireInflater();
+        inflater.setInput(frame, offset + 1, length - 1);
+        byte[] output = scratch.get();
+        int inflated = 0;
+        try {
+            while (!inflater.finished()) {
+                if (inflated == output.length) {
+                    if (output.length >= maxFrameLength) {
+                        throw new DataFormatException("inflated frame exceeds " + maxFrameLength + " bytes");
+                    }
+                    output = Arrays.copyOf(output, (int) Math.min((long) output.length << 1, maxFrameLength));
+                    scratch.set(output);
+                }
+                int n = inflater.inflate(output, inflated, output.length - inflated);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        if (dictionary == null) {
+                            throw new DataFormatException("frame requires a preset dictionary");
+                        }
+                        inflater.setDictionary(dictionary);
+                    }
+                    else if (inflater.needsInput()) {
+                        throw new DataFormatException("truncated deflate stream");
+                    }
+                }
+                inflated += n;
+            }
+            return Arrays.copyOf(output, inflated);
+        }
+        finally {
+            releaseInflater(inflater);
+            trimScratch();
+        }
+    }
+
+    /**
+     * 偶尔出现的大消息用完后不再占用线程缓存
+     */
+    private void trimScratch() {
+        if (scratch.get().length > MAX_RETAINED_SCRATCH) {
+            scratch.remove();
+        }
+    }
+}
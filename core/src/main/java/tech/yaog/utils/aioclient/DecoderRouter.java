@@ -0,0 +1,141 @@
+package tech.yaog.utils.aioclient;
+
+/**
+ * 按帧中的消息类型选择解码器，每帧只解码一次
+ *
+ * 消息类型由 {@link Discriminator} 从帧中取出，映射到解码器的表以 int 为键，
+ * 查找不装箱。没有对应解码器时使用 fallback，未设置 fallback 时丢弃该帧。
+ * <pre>
+ * bootstrap.decoderRouter(new DecoderRouter(DecoderRouter.byteAt(0))
+ *     .route(0x01, new LoginDecoder())
+ *     .route(0x02, new HeartbeatDecoder())
+ *     .fallback(new RawDecoder()));
+ * </pre>
+ */
+public class DecoderRouter {
+
+    public interface Discriminator {
+        /**
+         * 从帧中取出消息类型
+         * @param frame 帧所在数组，只在调用期间有效，不可修改
+         * @param offset 帧起始位置
+         * @param length 帧长度
+         */
+        int discriminate(byte[] frame, int offset, int length);
+    }
+
+    /**
+     * 以指定位置的单字节（无符号）作为消息类型，帧长度不足时为 -1
+     */
+    public static Discriminator byteAt(final int index) {
+        return new Discriminator() {
+            @Override
+            public int discriminate(byte[] frame, int offset, int length) {
+                return index < length ? frame[offset + index] & 0xFF : -1;
+            }
+        };
+    }
+
+    /**
+     * 以指定位置的两字节大端无符号整数作为消息类型，帧长度不足时为 -1
+     */
+    public static Discriminator shortAt(final int index) {
+        return new Discriminator() {
+            @Override
+            public int discriminate(byte[] frame, int offset, int length) {
+                if (index + 2 > length) {
+                    return -1;
+                }
+                return (frame[offset + index] & 0xFF) << 8 | frame[offset + index + 1] & 0xFF;
+            }
+        };
+    }
+
+    private final Discriminator discriminator;
+    private volatile Table table = new Table(16);
+    private volatile AbstractDecoder<?> fallback;
+
+    public DecoderRouter(Discriminator discriminator) {
+        this.discriminator = discriminator;
+    }
+
+    /**
+     * 注册消息类型对应的解码器，同一类型重复注册时覆盖
+     */
+    public synchronized DecoderRouter route(int type, AbstractDecoder<?> decoder) {
+        if (decoder == null) {
+            throw new IllegalArgumentException("decoder is null");
+        }
+        Table current = table;
+        Table copy = new Table(current.size + 1 > current.keys.length / 2 ? current.keys.length * 2 : current.keys.length);
+        for (int i = 0;i<current.keys.length;i++) {
+            if (current.decoders[i] != null) {
+                copy.put(current.keys[i], current.decoders[i]);
+            }
+        }
+        copy.put(type, decoder);
+        table = copy;
+        return this;
+    }
+
+    /**
+     * 没有对应解码器时使用的解码器
+     */
+    public DecoderRouter fallback(AbstractDecoder<?> decoder) {
+        this.fallback = decoder;
+        return this;
+    }
+
+    /**
+     * @return 该帧对应的解码器，没有时返回 fallback（可能为 null）
+     */
+    public AbstractDecoder<?> select(byte[] frame, int offset, int length) {
+        AbstractDecoder<?> decoder = table.get(discriminator.discriminate(frame, offset, length));
+        return decoder != null ? decoder : fallback;
+    }
+
+    /**
+     * 线性探测的 int 键哈希表，创建后只读
+     */
+    private static class Table {
+        final int[] keys;
+        final AbstractDecoder<?>[] decoders;
+        final int mask;
+        int size;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            decoders = new AbstractDecoder<?>[capacity];
+            mask = capacity - 1;
+        }
+
+        private static int hash(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ h >>> 16;
+        }
+
+        void put(int key, AbstractDecoder<?> decoder) {
+            int i = hash(key) & mask;
+            while (decoders[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (decoders[i] == null) {
+                size++;
+            }
+            keys[i] = key;
+            decoders[i] = decoder;
+        }
+
+        AbstractDecoder<?> get(int key) {
+            int i = hash(key) & mask;
+            AbstractDecoder<?> decoder;
+            while ((decoder = decoders[i]) != null) {
+                if (keys[i] == key) {
+                    return decoder;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package tech.yaog.utils.aioclient;
+
+/**
+ * 享元消息的解码器，只创建消息对象并指向帧数据，字段在处理器访问时才读取
+ * <pre>
+ * bootstrap.addDecoder(new FlyweightDecoder&lt;Order&gt;() {
+ *     &#64;Override
+ *     protected Order create() {
+ *         return new Order();
+ *     }
+ * });
+ * </pre>
+ */
+public abstract class FlyweightDecoder<T extends AbstractFlyweight> extends AbstractDecoder<T> {
+
+    /**
+     * 创建空的消息对象，每帧调用一次
+     */
+    protected abstract T create();
+
+    @Override
+    public T decode(byte[] byteBuffer) {
+        T msg = create();
+        msg.wrap(byteBuffer, 0, byteBuffer.length, true);
+        return msg;
+    }
+
+    @Override
+    public T decode(byte[] frame, int offset, int length) {
+        T msg = create();
+        msg.wrap(frame, offset, length, false);
+        return msg;
+    }
+}
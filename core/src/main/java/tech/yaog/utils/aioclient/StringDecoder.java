@@ -14,4 +14,9 @@ public class StringDecoder extends AbstractDecoder<String> {
     public String decode(byte[] byteBuffer) {
         return new String(byteBuffer, charset);
     }
+
+    @Override
+    public String decode(byte[] frame, int offset, int length) {
+        return new String(frame, offset, length, charset);
+    }
 }
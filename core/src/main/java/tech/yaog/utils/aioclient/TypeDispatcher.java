@@ -0,0 +1,82 @@
+package tech.yaog.utils.aioclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按消息类型查找编码器、处理器
+ *
+ * 每个具体类只在第一次出现时解析一次匹配的注册类型，结果按具体程度排序（子类在前，
+ * 无继承关系的按注册顺序），之后只需一次哈希查找。注册表与缓存均为写时复制，
+ * 读取无锁，注册时清空缓存。
+ */
+class TypeDispatcher<V> {
+
+    private volatile Map<Class<?>, V> registered = Collections.emptyMap();
+    private volatile Map<Class<?>, List<V>> resolved = Collections.emptyMap();
+
+    synchronized void put(Class<?> type, V value) {
+        Map<Class<?>, V> copy = new LinkedHashMap<>(registered);
+        copy.put(type, value);
+        registered = copy;
+        resolved = Collections.emptyMap();
+    }
+
+    synchronized void clear() {
+        registered = Collections.emptyMap();
+        resolved = Collections.emptyMap();
+    }
+
+    /**
+     * @return 可以处理该类型的所有注册项，最具体的在前
+     */
+    List<V> lookup(Class<?> type) {
+        List<V> values = resolved.get(type);
+        if (values == null) {
+            values = resolve(type);
+        }
+        return values;
+    }
+
+    private synchronized List<V> resolve(Class<?> type) {
+        List<V> values = resolved.get(type);
+        if (values != null) {
+            return values;
+        }
+        Map<Class<?>, V> registered = this.registered;
+        List<Class<?>> matched = new ArrayList<>();
+        for (Class<?> clazz : registered.keySet()) {
+            if (clazz.isAssignableFrom(type)) {
+                matched.add(clazz);
+            }
+        }
+        values = new ArrayList<>(matched.size());
+        while (!matched.isEmpty()) {
+            // 取第一个在剩余项中没有子类的类型
+            int selected = 0;
+            for (int i = 0;i<matched.size();i++) {
+                boolean mostSpecific = true;
+                for (int j = 0;j<matched.size();j++) {
+                    if (i != j && matched.get(i).isAssignableFrom(matched.get(j))) {
+                        mostSpecific = false;
+                        break;
+                    }
+                }
+                if (mostSpecific) {
+                    selected = i;
+                    break;
+                }
+            }
+            values.add(registered.get(matched.remove(selected)));
+        }
+        values = Collections.unmodifiableList(values);
+        Map<Class<?>, List<V>> copy = new HashMap<>(resolved);
+        copy.put(type, values);
+        resolved = copy;
+        return values;
+    }
+}
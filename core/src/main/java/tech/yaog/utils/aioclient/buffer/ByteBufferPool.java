@@ -0,0 +1,137 @@
+package tech.yaog.utils.aioclient.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ByteBuffer 池
+ *
+ * 按 2 的幂划分容量等级 (512B ~ 64KB)，每个线程先从自己的缓存中取用，
+ * 线程缓存满了再归还到共享队列。超出最大等级的请求直接分配，不回收。
+ * 归还后的 ByteBuffer 不可再使用。
+ */
+public class ByteBufferPool {
+
+    private static final int MIN_SHIFT = 9;
+    private static final int MAX_SHIFT = 16;
+    private static final int CLASS_COUNT = MAX_SHIFT - MIN_SHIFT + 1;
+    private static final int THREAD_CACHE_SIZE = 8;
+    private static final int SHARED_CACHE_SIZE = 64;
+
+    private static final ByteBufferPool HEAP = new ByteBufferPool(false);
+    private static final ByteBufferPool DIRECT = new ByteBufferPool(true);
+
+    public static ByteBufferPool heap() {
+        return HEAP;
+    }
+
+    public static ByteBufferPool direct() {
+        return DIRECT;
+    }
+
+    private final boolean direct;
+    private final SizeClass[] classes = new SizeClass[CLASS_COUNT];
+    private final ThreadLocal<ArrayDeque<ByteBuffer>[]> threadCache = new ThreadLocal<ArrayDeque<ByteBuffer>[]>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected ArrayDeque<ByteBuffer>[] initialValue() {
+            ArrayDeque<ByteBuffer>[] caches = new ArrayDeque[CLASS_COUNT];
+            for (int i = 0;i<CLASS_COUNT;i++) {
+                caches[i] = new ArrayDeque<>(THREAD_CACHE_SIZE);
+            }
+            return caches;
+        }
+    };
+
+    public ByteBufferPool(boolean direct) {
+        this.direct = direct;
+        for (int i = 0;i<CLASS_COUNT;i++) {
+            classes[i] = new SizeClass();
+        }
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * 获取容量不小于 capacity 的空 ByteBuffer (position 0, limit 为容量)
+     */
+    public ByteBuffer acquire(int capacity) {
+        int index = indexOf(capacity);
+        if (index < 0) {
+            return allocate(capacity);
+        }
+        ByteBuffer buffer = threadCache.get()[index].pollLast();
+        if (buffer == null) {
+            buffer = classes[index].poll();
+        }
+        if (buffer == null) {
+            return allocate(1 << (index + MIN_SHIFT));
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * 归还 ByteBuffer，非本池分配的容量等级会被忽略
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        if (Integer.bitCount(capacity) != 1) {
+            return;
+        }
+        int index = Integer.numberOfTrailingZeros(capacity) - MIN_SHIFT;
+        if (index < 0 || index >= CLASS_COUNT) {
+            return;
+        }
+        ArrayDeque<ByteBuffer> cache = threadCache.get()[index];
+        if (cache.size() < THREAD_CACHE_SIZE) {
+            cache.offerLast(buffer);
+        }
+        else {
+            classes[index].offer(buffer);
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    private static int indexOf(int capacity) {
+        if (capacity > 1 << MAX_SHIFT) {
+            return -1;
+        }
+        if (capacity <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(capacity - 1) - MIN_SHIFT;
+    }
+
+    private static class SizeClass {
+        private final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        ByteBuffer poll() {
+            ByteBuffer buffer = queue.poll();
+            if (buffer != null) {
+                size.decrementAndGet();
+            }
+            return buffer;
+        }
+
+        void offer(ByteBuffer buffer) {
+            if (size.incrementAndGet() > SHARED_CACHE_SIZE) {
+                size.decrementAndGet();
+                return;
+            }
+            queue.offer(buffer);
+        }
+    }
+}
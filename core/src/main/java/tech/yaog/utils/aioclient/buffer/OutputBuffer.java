@@ -0,0 +1,150 @@
+package tech.yaog.utils.aioclient.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 可复用的发送合并缓冲区，非线程安全
+ *
+ * 指定 {@link ByteBufferPool} 时底层数组从池中获取，{@link #detach()} 把已写入的数据连同数组一起交出，
+ * 由接收方用完后归还到池中，缓冲区随后从池中取新的数组继续使用。
+ */
+public class OutputBuffer {
+
+    private final ByteBufferPool pool;
+    private final int initialCapacity;
+    private ByteBuffer backing;
+    private byte[] array;
+    private int size;
+
+    public OutputBuffer() {
+        this(4096);
+    }
+
+    public OutputBuffer(int initialCapacity) {
+        this(null, initialCapacity);
+    }
+
+    /**
+     * @param pool 为 null 时直接分配数组，否则必须是堆内存的池
+     */
+    public OutputBuffer(ByteBufferPool pool, int initialCapacity) {
+        if (pool != null && pool.isDirect()) {
+            throw new IllegalArgumentException("OutputBuffer requires a heap pool");
+        }
+        this.pool = pool;
+        this.initialCapacity = Math.max(initialCapacity, 16);
+    }
+
+    public void write(byte[] src) {
+        write(src, 0, src.length);
+    }
+
+    public void write(byte[] src, int offset, int length) {
+        ensureWritable(length);
+        System.arraycopy(src, offset, array, size, length);
+        size += length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 底层数组，有效数据为 [0, size)，扩容后会变化
+     */
+    public byte[] array() {
+        ensureWritable(0);
+        return array;
+    }
+
+    public int capacity() {
+        return array == null ? 0 : array.length;
+    }
+
+    /**
+     * 保证至少还能写入 length 字节而不扩容
+     */
+    public void ensureWritable(int length) {
+        int required = size + length;
+        if (array != null && required <= array.length) {
+            return;
+        }
+        int newCapacity = array == null ? initialCapacity : array.length;
+        while (newCapacity < required) {
+            newCapacity <<= 1;
+            if (newCapacity <= 0) {
+                newCapacity = required;
+                break;
+            }
+        }
+        ByteBuffer oldBacking = backing;
+        byte[] newArray;
+        if (pool != null) {
+            backing = pool.acquire(newCapacity);
+            newArray = backing.array();
+        }
+        else {
+            newArray = new byte[newCapacity];
+            backing = null;
+        }
+        if (array != null) {
+            System.arraycopy(array, 0, newArray, 0, size);
+        }
+        array = newArray;
+        if (pool != null && oldBacking != null) {
+            pool.release(oldBacking);
+        }
+    }
+
+    /**
+     * 直接写入 {@link #array()} 后调用，确认写入了 length 字节
+     */
+    public void advance(int length) {
+        if (length < 0 || size + length > capacity()) {
+            throw new IndexOutOfBoundsException("advance " + length + ", size " + size + ", capacity " + capacity());
+        }
+        size += length;
+    }
+
+    /**
+     * 丢弃 size 之后的数据
+     */
+    public void truncate(int size) {
+        if (size < 0 || size > this.size) {
+            throw new IndexOutOfBoundsException("truncate to " + size + ", size " + this.size);
+        }
+        this.size = size;
+    }
+
+    public byte[] toByteArray() {
+        return array == null ? new byte[0] : Arrays.copyOf(array, size);
+    }
+
+    /**
+     * 交出已写入的数据，不拷贝。返回的 ByteBuffer position 为 0，limit 为数据长度，
+     * 之后缓冲区为空并使用新的数组。使用池时接收方用完后应归还到同一个池
+     */
+    public ByteBuffer detach() {
+        ByteBuffer buffer;
+        if (array == null) {
+            buffer = ByteBuffer.allocate(0);
+        }
+        else if (backing != null) {
+            buffer = backing;
+            buffer.clear();
+            buffer.limit(size);
+        }
+        else {
+            buffer = ByteBuffer.wrap(array, 0, size);
+        }
+        backing = null;
+        array = null;
+        size = 0;
+        return buffer;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+}
@@ -0,0 +1,89 @@
+package tech.yaog.utils.aioclient.buffer;
+
+/**
+ * 自适应读取大小
+ *
+ * 一次读满时迅速放大下一次的读取大小，连续两次读取量明显偏小时再逐级缩小。
+ * 每个连接一个实例，非线程安全。
+ */
+public class ReadSizePredictor {
+
+    private static final int INDEX_INCREMENT = 4;
+    private static final int INDEX_DECREMENT = 1;
+    private static final int[] SIZE_TABLE;
+
+    static {
+        int count = 0;
+        for (int size = 16;size<512;size += 16) {
+            count++;
+        }
+        for (int size = 512;size>0;size <<= 1) {
+            count++;
+        }
+        SIZE_TABLE = new int[count];
+        int i = 0;
+        for (int size = 16;size<512;size += 16) {
+            SIZE_TABLE[i++] = size;
+        }
+        for (int size = 512;size>0;size <<= 1) {
+            SIZE_TABLE[i++] = size;
+        }
+    }
+
+    private final int minIndex;
+    private final int maxIndex;
+    private int index;
+    private int nextSize;
+    private boolean decreaseNow;
+
+    public ReadSizePredictor() {
+        this(64, 1024, 65536);
+    }
+
+    public ReadSizePredictor(int minimum, int initial, int maximum) {
+        if (minimum <= 0 || initial < minimum || maximum < initial) {
+            throw new IllegalArgumentException("invalid sizes: " + minimum + ", " + initial + ", " + maximum);
+        }
+        minIndex = indexOf(minimum);
+        maxIndex = indexOf(maximum);
+        index = indexOf(initial);
+        nextSize = SIZE_TABLE[index];
+    }
+
+    /**
+     * 下一次读取应分配的大小
+     */
+    public int next() {
+        return nextSize;
+    }
+
+    /**
+     * 记录一次读取的实际字节数
+     */
+    public void record(int actual) {
+        if (actual <= SIZE_TABLE[Math.max(0, index - INDEX_DECREMENT)]) {
+            if (decreaseNow) {
+                index = Math.max(index - INDEX_DECREMENT, minIndex);
+                nextSize = SIZE_TABLE[index];
+                decreaseNow = false;
+            }
+            else {
+                decreaseNow = true;
+            }
+        }
+        else if (actual >= nextSize) {
+            index = Math.min(index + INDEX_INCREMENT, maxIndex);
+            nextSize = SIZE_TABLE[index];
+            decreaseNow = false;
+        }
+    }
+
+    private static int indexOf(int size) {
+        for (int i = 0;i<SIZE_TABLE.length;i++) {
+            if (SIZE_TABLE[i] >= size) {
+                return i;
+            }
+        }
+        return SIZE_TABLE.length - 1;
+    }
+}
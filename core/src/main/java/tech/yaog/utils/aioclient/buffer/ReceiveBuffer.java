@@ -0,0 +1,120 @@
+package tech.yaog.utils.aioclient.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 接收累积缓冲区
+ *
+ * 通过读写索引管理数据，消费数据时只移动读索引，不拷贝剩余数据。
+ * 仅当尾部空间不足时才会压缩（将未读数据移到头部）或扩容。
+ * 非线程安全，由调用方加锁。
+ */
+public class ReceiveBuffer {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private byte[] array;
+    private int readerIndex;
+    private int writerIndex;
+
+    public ReceiveBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ReceiveBuffer(int initialCapacity) {
+        array = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * 底层数组，未读数据位于 [readerIndex, writerIndex)。
+     * 任何写入操作都可能替换底层数组，不要长期持有
+     */
+    public byte[] array() {
+        return array;
+    }
+
+    public int readerIndex() {
+        return readerIndex;
+    }
+
+    public int writerIndex() {
+        return writerIndex;
+    }
+
+    public int readableBytes() {
+        return writerIndex - readerIndex;
+    }
+
+    public void write(byte[] src) {
+        write(src, 0, src.length);
+    }
+
+    public void write(byte[] src, int offset, int length) {
+        ensureWritable(length);
+        System.arraycopy(src, offset, array, writerIndex, length);
+        writerIndex += length;
+    }
+
+    /**
+     * 写入 src 的 [position, limit)，src 的 position 移到 limit
+     */
+    public void write(ByteBuffer src) {
+        int length = src.remaining();
+        ensureWritable(length);
+        src.get(array, writerIndex, length);
+        writerIndex += length;
+    }
+
+    /**
+     * 拷贝出 readerIndex 之后 offset 处开始的 length 个字节，不移动读索引
+     */
+    public byte[] copy(int offset, int length) {
+        int start = readerIndex + offset;
+        return Arrays.copyOfRange(array, start, start + length);
+    }
+
+    /**
+     * 丢弃 length 个字节，超出可读长度时丢弃全部
+     */
+    public void skip(int length) {
+        readerIndex += Math.min(Math.max(length, 0), readableBytes());
+        if (readerIndex == writerIndex) {
+            // 已读完，索引归零，下次写入无需压缩
+            readerIndex = 0;
+            writerIndex = 0;
+        }
+    }
+
+    public void clear() {
+        readerIndex = 0;
+        writerIndex = 0;
+    }
+
+    private void ensureWritable(int length) {
+        if (array.length - writerIndex >= length) {
+            return;
+        }
+        int readable = readableBytes();
+        int required = readable + length;
+        if (required <= array.length) {
+            // 头部有足够的已读空间，压缩即可
+            System.arraycopy(array, readerIndex, array, 0, readable);
+        }
+        else {
+            int newCapacity = array.length;
+            while (newCapacity < required) {
+                newCapacity <<= 1;
+                if (newCapacity <= 0) {
+                    newCapacity = required;
+                    break;
+                }
+            }
+            byte[] newArray = new byte[newCapacity];
+            System.arraycopy(array, readerIndex, newArray, 0, readable);
+            array = newArray;
+        }
+        readerIndex = 0;
+        writerIndex = readable;
+    }
+}
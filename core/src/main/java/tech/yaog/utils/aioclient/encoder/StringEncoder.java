@@ -0,0 +1,71 @@
+package tech.yaog.utils.aioclient.encoder;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+import tech.yaog.utils.aioclient.AbstractBufferEncoder;
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+
+/**
+ * 字符串编码器，直接编码到发送缓冲区。
+ * 每个线程复用一个 CharsetEncoder，无法编码的字符与 String.getBytes 一样替换为默认字符
+ */
+public class StringEncoder extends AbstractBufferEncoder<String> {
+
+    private final Charset charset;
+    private final float maxBytesPerChar;
+    private final ThreadLocal<CharsetEncoder> encoder = new ThreadLocal<CharsetEncoder>() {
+        @Override
+        protected CharsetEncoder initialValue() {
+            return charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+    };
+
+    public StringEncoder(Charset charset) {
+        this.charset = charset;
+        this.maxBytesPerChar = charset.newEncoder().maxBytesPerChar();
+    }
+
+    @Override
+    public int sizeHint(String msg) {
+        return (int) Math.ceil(msg.length() * (double) maxBytesPerChar);
+    }
+
+    @Override
+    public boolean encode(String msg, OutputBuffer out) {
+        CharsetEncoder encoder = this.encoder.get();
+        encoder.reset();
+        CharBuffer src = CharBuffer.wrap(msg);
+        out.ensureWritable(sizeHint(msg));
+        boolean flushing = false;
+        while (true) {
+            int start = out.size();
+            ByteBuffer dst = ByteBuffer.wrap(out.array(), start, out.capacity() - start);
+            CoderResult result = flushing ? encoder.flush(dst) : encoder.encode(src, dst, true);
+            if (!flushing && result.isUnderflow()) {
+                flushing = true;
+                result = encoder.flush(dst);
+            }
+            out.advance(dst.position() - start);
+            if (result.isUnderflow()) {
+                return true;
+            }
+            if (result.isOverflow()) {
+                out.ensureWritable(Math.max(out.capacity(), 16));
+                continue;
+            }
+            try {
+                result.throwException();
+            } catch (CharacterCodingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package tech.yaog.utils.aioclient.executor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * 按键保序执行：键相同的任务按提交顺序依次执行，键不同的任务可以并行
+ *
+ * 键按哈希分到固定数量的 {@link SerialExecutor} 上，不为每个键单独维护队列，
+ * 因此不同的键也可能落在同一个分片上而串行执行。
+ */
+public class KeyedExecutor {
+
+    private final SerialExecutor[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes 分片数，向上取整为 2 的幂
+     */
+    public KeyedExecutor(Executor executor, int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new SerialExecutor[size];
+        for (int i = 0;i<size;i++) {
+            this.stripes[i] = new SerialExecutor(executor);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @param key 为 null 时与其他 null 键的任务保持顺序
+     */
+    public void execute(Object key, Runnable task) {
+        int h = key == null ? 0 : key.hashCode();
+        h ^= h >>> 16;
+        stripes[h & mask].execute(task);
+    }
+}
@@ -0,0 +1,86 @@
+package tech.yaog.utils.aioclient.executor;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 在共享线程池上按提交顺序逐个执行任务，同一时刻最多占用一个线程
+ */
+public class SerialExecutor implements Executor {
+
+    /**
+     * 连续执行这么多任务后让出线程，避免长时间占住共享线程池
+     */
+    private static final int MAX_TASKS_PER_RUN = 64;
+
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private boolean running;
+
+    public SerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    private final Runnable drain = new Runnable() {
+        @Override
+        public void run() {
+            while (true) {
+                for (int i = 0;i<MAX_TASKS_PER_RUN;i++) {
+                    Runnable task;
+                    synchronized (tasks) {
+                        task = tasks.poll();
+                        if (task == null) {
+                            running = false;
+                            return;
+                        }
+                    }
+                    try {
+                        task.run();
+                    }
+                    catch (Throwable t) {
+                        t.printStackTrace();
+                    }
+                }
+                try {
+                    executor.execute(drain);
+                    return;
+                }
+                catch (RejectedExecutionException e) {
+                    // 线程池不再接受任务（如正在关闭），在当前线程继续执行剩余任务，不把它们留在队列中
+                }
+            }
+        }
+    };
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (tasks) {
+            tasks.offer(task);
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        try {
+            executor.execute(drain);
+        }
+        catch (RejectedExecutionException e) {
+            // 撤回该任务，调用方可以重试
+            boolean pending;
+            synchronized (tasks) {
+                tasks.remove(task);
+                pending = !tasks.isEmpty();
+                if (!pending) {
+                    running = false;
+                }
+            }
+            if (pending) {
+                // 期间其他线程提交的任务只入队未调度，在当前线程执行
+                drain.run();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package tech.yaog.utils.aioclient.io;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.CompletionHandler;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tech.yaog.utils.aioclient.buffer.ByteBufferPool;
+import tech.yaog.utils.aioclient.buffer.ReadSizePredictor;
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * 基于 AsynchronousSocketChannel 的 io
+ *
+ * 所有连接共用一个 AsynchronousChannelGroup，每次读取完成后直接在完成回调中发起下一次读取，
+ * 不占用额外线程。连接超时由共享定时器负责，不阻塞调用方。
+ *
+ * 在 Android 上需要 API 26 (O) 以上。
+ */
+public class AIO extends IO {
+
+    private static AsynchronousChannelGroup channelGroup;
+
+    /**
+     * 指定所有 AIO 连接共用的线程组，需在建立连接前设置
+     */
+    public static synchronized void setChannelGroup(AsynchronousChannelGroup group) {
+        channelGroup = group;
+    }
+
+    /**
+     * 所有 AIO 连接共用的线程组，未指定时创建线程数与 CPU 核数相同的线程组
+     */
+    public static synchronized AsynchronousChannelGroup getChannelGroup() throws IOException {
+        if (channelGroup == null || channelGroup.isShutdown()) {
+            final AtomicInteger index = new AtomicInteger();
+            channelGroup = AsynchronousChannelGroup.withFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "AIO worker " + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MAX_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+        return channelGroup;
+    }
+
+    private AsynchronousSocketChannel socketChannel;
+    private volatile boolean reading;
+    private final ReadSizePredictor readSize = new ReadSizePredictor();
+
+    private final Queue<ByteBuffer> toSend = new ArrayDeque<>();
+    private boolean writing;
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    public AIO(Callback callback) {
+        super(callback);
+    }
+
+    @Override
+    public boolean connect(String remote) {
+        return awaitConnect(remote);
+    }
+
+    @Override
+    public void connect(String remote, final ConnectListener listener) {
+        String[] remoteBlocks = remote.split(":");
+        if (remoteBlocks.length < 2) {
+            listener.onComplete(false);
+            return;
+        }
+        InetAddress address;
+        int port;
+        try {
+            address = InetAddress.getByName(remoteBlocks[0].trim());
+        } catch (UnknownHostException e) {
+            callback.onException(e);
+            listener.onComplete(false);
+            return;
+        }
+        try {
+            port = Integer.parseInt(remoteBlocks[1].trim());
+        }
+        catch (NumberFormatException e) {
+            callback.onException(e);
+            listener.onComplete(false);
+            return;
+        }
+        try {
+            socketChannel = AsynchronousSocketChannel.open(getChannelGroup());
+            socketChannel.setOption(StandardSocketOptions.SO_KEEPALIVE, keepAlive);
+        } catch (IOException e) {
+            callback.onException(e);
+            listener.onComplete(false);
+            return;
+        }
+        // 连接完成、失败、超时三者只有先到的一个生效
+        final AtomicBoolean done = new AtomicBoolean(false);
+        final HashedWheelTimer.Timeout timeout;
+        if (connTimeout > 0) {
+            timeout = HashedWheelTimer.shared().newTimeout(new Runnable() {
+                @Override
+                public void run() {
+                    if (done.compareAndSet(false, true)) {
+                        closeChannel();
+                        listener.onComplete(false);
+                    }
+                }
+            }, connTimeout, TimeUnit.MILLISECONDS);
+        }
+        else {
+            timeout = null;
+        }
+        socketChannel.connect(new InetSocketAddress(address, port), null, new CompletionHandler<Void, Object>() {
+            @Override
+            public void completed(Void result, Object attachment) {
+                if (!done.compareAndSet(false, true)) {
+                    return;
+                }
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                callback.onConnected();
+                listener.onComplete(true);
+            }
+
+            @Override
+            public void failed(Throwable exc, Object attachment) {
+                if (!done.compareAndSet(false, true)) {
+                    return;
+                }
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+                closeChannel();
+                callback.onException(exc);
+                listener.onComplete(false);
+            }
+        });
+    }
+
+    @Override
+    public void disconnect() {
+        reading = false;
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        try {
+            if (socketChannel != null) {
+                socketChannel.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private final CompletionHandler<Integer, ByteBuffer> readHandler = new CompletionHandler<Integer, ByteBuffer>() {
+        @Override
+        public void completed(Integer result, ByteBuffer attachment) {
+            readSize.record(result);
+            if (result > 0) {
+                if (metrics != null) {
+                    metrics.onRead(result);
+                }
+                attachment.flip();
+                try {
+                    callback.onReceived(attachment);
+                }
+                finally {
+                    ByteBufferPool.direct().release(attachment);
+                }
+                read();
+            }
+            else if (result < 0) {
+                ByteBufferPool.direct().release(attachment);
+                reading = false;
+                callback.onDisconnected();
+            }
+            else {
+                ByteBufferPool.direct().release(attachment);
+                read();
+            }
+        }
+
+        @Override
+        public void failed(Throwable exc, ByteBuffer attachment) {
+            ByteBufferPool.direct().release(attachment);
+            if (reading) {
+                reading = false;
+                callback.onDisconnected();
+            }
+        }
+    };
+
+    private void read() {
+        if (!reading) {
+            return;
+        }
+        ByteBuffer buffer = ByteBufferPool.direct().acquire(readSize.next());
+        try {
+            socketChannel.read(buffer, buffer, readHandler);
+        }
+        catch (RuntimeException e) {
+            // 通道已关闭或已有读取在进行中
+            ByteBufferPool.direct().release(buffer);
+            reading = false;
+            callback.onException(e);
+        }
+    }
+
+    @Override
+    public void beginRead() {
+        if (!reading) {
+            reading = true;
+            read();
+        }
+    }
+
+    @Override
+    public void stopRead() {
+        // 正在进行的读取完成后不再发起新的读取
+        reading = false;
+    }
+
+    private final CompletionHandler<Integer, ByteBuffer> writeHandler = new CompletionHandler<Integer, ByteBuffer>() {
+        @Override
+        public void completed(Integer result, ByteBuffer attachment) {
+            if (result > 0) {
+                if (metrics != null) {
+                    metrics.onWrite(result);
+                }
+                pendingBytes.addAndGet(-result);
+                callback.onWritten(result);
+            }
+            ByteBuffer next;
+            synchronized (toSend) {
+                if (attachment.hasRemaining()) {
+                    // 未写完，继续写剩余部分
+                    next = attachment;
+                }
+                else {
+                    ByteBufferPool.heap().release(attachment);
+                    next = toSend.poll();
+                    if (next == null) {
+                        writing = false;
+                        return;
+                    }
+                }
+            }
+            startWrite(next);
+        }
+
+        @Override
+        public void failed(Throwable exc, ByteBuffer attachment) {
+            synchronized (toSend) {
+                toSend.clear();
+                pendingBytes.set(0);
+                writing = false;
+            }
+            callback.onException(exc);
+        }
+    };
+
+    private void startWrite(ByteBuffer buffer) {
+        try {
+            socketChannel.write(buffer, buffer, writeHandler);
+        }
+        catch (RuntimeException e) {
+            writeHandler.failed(e, buffer);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes) {
+        // 只读包装，避免调用方的数组被当作池中的缓冲区回收
+        write(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        pendingBytes.addAndGet(buffer.remaining());
+        synchronized (toSend) {
+            if (writing) {
+                // 同一时刻只能有一个写操作，其余排队等待完成回调依次发出
+                toSend.offer(buffer);
+                return;
+            }
+            writing = true;
+        }
+        startWrite(buffer);
+    }
+
+    @Override
+    public long pendingWriteBytes() {
+        return pendingBytes.get();
+    }
+}
@@ -1,7 +1,5 @@
 package tech.yaog.utils.aioclient.io;
 
-import androidx.annotation.Keep;
-
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -10,13 +8,16 @@ import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.UnknownHostException;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import tech.yaog.utils.aioclient.buffer.ByteBufferPool;
 
-@Keep
 public class BIO extends IO {
 
     private Socket socket;
     private Thread readerThread;
+    private final AtomicBoolean reading = new AtomicBoolean();
 
     public BIO(Callback callback) {
         super(callback);
@@ -62,6 +63,7 @@ public class BIO extends IO {
 
     @Override
     public void disconnect() {
+        reading.set(false);
         if (socket != null) {
             try {
                 socket.close();
@@ -81,42 +83,43 @@ public class BIO extends IO {
             callback.onException(e);
             return;
         }
-        readerThread = new Thread(new Runnable() {
+        reading.set(true);
+        readerThread = newThread(new Runnable() {
             @Override
             public void run() {
-                int readFailed = 0;
-                while (!Thread.interrupted()) {
-                    try {
-                        int read;
-                        byte[] tmp = new byte[1024];
-                        while ((read = is.read(tmp)) > 0) {
-                            byte[] buffer = Arrays.copyOf(tmp, read);
-                            callback.onReceived(buffer);
-                        }
-                        if (read == -1) {
-                            readFailed++;
-                            if (readFailed >= 10) {
-                                callback.onDisconnected();
-                                break;
-                            }
+                byte[] tmp = new byte[1024];
+                // 回调只在期间借用数据，读缓冲区可以一直复用
+                ByteBuffer view = ByteBuffer.wrap(tmp);
+                try {
+                    int read;
+                    while ((read = is.read(tmp)) >= 0) {
+                        if (read == 0) {
+                            continue;
                         }
-                        else {
-                            readFailed = 0;
+                        if (metrics != null) {
+                            metrics.onRead(read);
                         }
-                    } catch (IOException e) {
-                        callback.onException(e);
+                        view.clear();
+                        view.limit(read);
+                        callback.onReceived(view);
                     }
+                } catch (IOException e) {
+                    // 连接被重置，或 socket 已被关闭
+                }
+                // 对端关闭或连接出错时只通知一次，主动停止读取时不通知
+                if (reading.compareAndSet(true, false)) {
+                    callback.onDisconnected();
                 }
             }
-        });
+        }, socket.toString()+"_Recv");
 
         readerThread.setPriority(Thread.MAX_PRIORITY);
-        readerThread.setName(socket.toString()+"_Recv");
         readerThread.start();
     }
 
     @Override
     public void stopRead() {
+        reading.set(false);
         if (readerThread != null) {
             readerThread.interrupt();
             readerThread = null;
@@ -125,10 +128,30 @@ public class BIO extends IO {
 
     @Override
     public void write(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            // 同步写出，直接使用底层数组
+            write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            ByteBufferPool.heap().release(buffer);
+        }
+        else {
+            super.write(buffer);
+        }
+    }
+
+    private void write(byte[] bytes, int offset, int length) {
         try {
             OutputStream os = socket.getOutputStream();
-            os.write(bytes);
+            os.write(bytes, offset, length);
             os.flush();
+            if (metrics != null) {
+                metrics.onWrite(length);
+            }
+            callback.onWritten(length);
         } catch (IOException e) {
             e.printStackTrace();
         }
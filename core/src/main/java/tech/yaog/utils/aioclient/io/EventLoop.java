@@ -0,0 +1,165 @@
+package tech.yaog.utils.aioclient.io;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个 selector 线程，可以同时服务多个连接
+ *
+ * 通道的注册、兴趣集修改等操作都以任务的形式提交到本线程执行，
+ * 提交任务时通过 selector.wakeup() 唤醒，不轮询。
+ */
+public class EventLoop implements Executor {
+
+    public interface Handler {
+        /**
+         * 通道就绪时在事件线程上调用
+         */
+        void onSelected(SelectionKey key);
+    }
+
+    private final String name;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger channelCount = new AtomicInteger();
+    private volatile Thread thread;
+    private volatile boolean shutdown;
+
+    EventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * 当前注册在本线程上的通道数
+     */
+    public int channelCount() {
+        return channelCount.get();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.offer(task);
+        if (!inEventLoop()) {
+            startIfNeeded();
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * 在事件线程上注册通道，handler 作为 SelectionKey 的附件
+     * @return 注册得到的 SelectionKey，必须在事件线程上调用
+     */
+    SelectionKey register(SelectableChannel channel, int ops, Handler handler) throws ClosedChannelException {
+        SelectionKey key = channel.register(selector, ops, handler);
+        channelCount.incrementAndGet();
+        return key;
+    }
+
+    /**
+     * 注销通道，可在任意线程调用，重复注销同一个 key 时不做任何事
+     */
+    void deregister(SelectionKey key) {
+        // 以取下附件作为注销标记，attach 是原子操作
+        if (key == null || key.attach(null) == null) {
+            return;
+        }
+        key.cancel();
+        channelCount.decrementAndGet();
+    }
+
+    synchronized void shutdown() {
+        shutdown = true;
+        if (thread == null) {
+            try {
+                selector.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        else {
+            selector.wakeup();
+        }
+    }
+
+    private synchronized void startIfNeeded() {
+        if (thread != null || shutdown) {
+            return;
+        }
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                loop();
+            }
+        }, name);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        this.thread = thread;
+        thread.start();
+    }
+
+    private void loop() {
+        while (!shutdown) {
+            try {
+                if (tasks.isEmpty()) {
+                    selector.select();
+                }
+                else {
+                    selector.selectNow();
+                }
+                Set<SelectionKey> keys = selector.selectedKeys();
+                Iterator<SelectionKey> it = keys.iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    Object attachment = key.attachment();
+                    if (attachment instanceof Handler) {
+                        try {
+                            ((Handler) attachment).onSelected(key);
+                        }
+                        catch (Throwable t) {
+                            t.printStackTrace();
+                        }
+                    }
+                }
+                runTasks();
+            }
+            catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            }
+            catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+}
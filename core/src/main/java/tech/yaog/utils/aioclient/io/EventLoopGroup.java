@@ -0,0 +1,66 @@
+package tech.yaog.utils.aioclient.io;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一组 selector 线程，连接按负载分配到其中一个线程上。
+ * 线程数取决于 CPU 核数而不是连接数。
+ */
+public class EventLoopGroup {
+
+    private static EventLoopGroup shared;
+
+    /**
+     * 进程内共享的事件线程组，线程数与 CPU 核数相同
+     */
+    public static synchronized EventLoopGroup shared() {
+        if (shared == null) {
+            shared = new EventLoopGroup(Runtime.getRuntime().availableProcessors());
+        }
+        return shared;
+    }
+
+    private final EventLoop[] loops;
+    private final AtomicInteger index = new AtomicInteger();
+
+    public EventLoopGroup(int nThreads) {
+        if (nThreads <= 0) {
+            throw new IllegalArgumentException("nThreads must be positive: " + nThreads);
+        }
+        loops = new EventLoop[nThreads];
+        try {
+            for (int i = 0;i<nThreads;i++) {
+                loops[i] = new EventLoop("NIO worker " + (i + 1));
+            }
+        } catch (IOException e) {
+            for (EventLoop loop : loops) {
+                if (loop != null) {
+                    loop.shutdown();
+                }
+            }
+            throw new IllegalStateException("failed to open selector", e);
+        }
+    }
+
+    /**
+     * 选择注册连接数最少的线程，连接数相同时轮流分配
+     */
+    public EventLoop next() {
+        int start = (index.getAndIncrement() & Integer.MAX_VALUE) % loops.length;
+        EventLoop selected = loops[start];
+        for (int i = 1;i<loops.length;i++) {
+            EventLoop loop = loops[(start + i) % loops.length];
+            if (loop.channelCount() < selected.channelCount()) {
+                selected = loop;
+            }
+        }
+        return selected;
+    }
+
+    public void shutdown() {
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+    }
+}
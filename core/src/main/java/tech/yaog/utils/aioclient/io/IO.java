@@ -0,0 +1,138 @@
+package tech.yaog.utils.aioclient.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+
+import tech.yaog.utils.aioclient.buffer.ByteBufferPool;
+import tech.yaog.utils.aioclient.metrics.ClientMetrics;
+
+public abstract class IO {
+
+    public interface Callback {
+        void onReceived(byte[] data);
+        /**
+         * 收到数据，有效数据为 data 的 [position, limit)。
+         * data 仅在回调期间借用，所有权仍属于 io，回调返回后会被复用或归还到池中，需要保留的数据应在回调中拷贝。
+         * 默认实现拷贝为 byte[] 后调用 {@link #onReceived(byte[])}
+         */
+        default void onReceived(ByteBuffer data) {
+            byte[] bytes = new byte[data.remaining()];
+            data.get(bytes);
+            onReceived(bytes);
+        }
+        /**
+         * 数据已写入 socket
+         */
+        void onWritten(int bytes);
+        void onConnected();
+        void onDisconnected();
+        void onException(Throwable t);
+    }
+
+    public interface ConnectListener {
+        void onComplete(boolean connected);
+    }
+
+    public abstract boolean connect(String remote);
+    public abstract void disconnect();
+    public abstract void beginRead();
+    public abstract void stopRead();
+    public abstract void write(byte[] bytes);
+
+    /**
+     * 写出 buffer 中 [position, limit) 的数据，buffer 的所有权转交给 io，写完后归还到 {@link ByteBufferPool#heap()}。
+     * 默认实现拷贝后调用 {@link #write(byte[])}，支持异步写的子类应覆盖此方法避免拷贝
+     */
+    public void write(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        ByteBufferPool.heap().release(buffer);
+        write(bytes);
+    }
+
+    /**
+     * 已交给 io 但尚未写入 socket 的字节数，同步写出的实现返回 0
+     */
+    public long pendingWriteBytes() {
+        return 0;
+    }
+
+    /**
+     * 异步连接，结果通过 listener 通知。
+     * 默认实现在新线程中调用阻塞的 {@link #connect(String)}，支持异步的子类应覆盖此方法
+     */
+    public void connect(final String remote, final ConnectListener listener) {
+        Thread connectThread = newThread(new Runnable() {
+            @Override
+            public void run() {
+                boolean connected = connect(remote);
+                if (listener != null) {
+                    listener.onComplete(connected);
+                }
+            }
+        }, remote+"_Connect");
+        connectThread.start();
+    }
+
+    /**
+     * 创建该连接使用的线程（未启动），Bootstrap 的发送线程也通过这里创建。
+     * 子类可以覆盖以使用其他类型的线程
+     */
+    public Thread newThread(Runnable task, String name) {
+        return new Thread(task, name);
+    }
+
+    /**
+     * 供实现了异步连接的子类实现阻塞的 {@link #connect(String)}：发起异步连接并等待结果
+     */
+    protected boolean awaitConnect(String remote) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final boolean[] result = new boolean[1];
+        connect(remote, new ConnectListener() {
+            @Override
+            public void onComplete(boolean connected) {
+                result[0] = connected;
+                latch.countDown();
+            }
+        });
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            disconnect();
+            return false;
+        }
+        return result[0];
+    }
+
+    protected Callback callback;
+    protected boolean keepAlive;
+    protected int connTimeout = 0;
+    /**
+     * 为 null 时不记录
+     */
+    protected ClientMetrics metrics;
+
+    public IO(Callback callback) {
+        this.callback = callback;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public int getConnTimeout() {
+        return connTimeout;
+    }
+
+    public void setConnTimeout(int connTimeout) {
+        this.connTimeout = connTimeout;
+    }
+
+    public void setMetrics(ClientMetrics metrics) {
+        this.metrics = metrics;
+    }
+}
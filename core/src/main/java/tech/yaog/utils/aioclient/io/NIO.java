@@ -0,0 +1,374 @@
+package tech.yaog.utils.aioclient.io;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tech.yaog.utils.aioclient.buffer.ByteBufferPool;
+import tech.yaog.utils.aioclient.buffer.ReadSizePredictor;
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * 基于 Selector 的 io
+ *
+ * 连接注册在 {@link EventLoopGroup} 中的某个事件线程上，多个连接共用线程。
+ */
+public class NIO extends IO {
+
+    /**
+     * 单次就绪最多连续读取的次数，避免一个繁忙的连接占住事件线程
+     */
+    private static final int MAX_READS_PER_WAKEUP = 16;
+    /**
+     * 单次 gathering write 最多合并的缓冲区数
+     */
+    private static final int MAX_GATHERING_BUFFERS = 64;
+
+    private static EventLoopGroup eventLoopGroup;
+
+    /**
+     * 指定所有 NIO 连接共用的事件线程组，需在建立连接前设置
+     */
+    public static synchronized void setEventLoopGroup(EventLoopGroup group) {
+        eventLoopGroup = group;
+    }
+
+    /**
+     * 所有 NIO 连接共用的事件线程组，未指定时使用 {@link EventLoopGroup#shared()}
+     */
+    public static synchronized EventLoopGroup getEventLoopGroup() {
+        if (eventLoopGroup == null) {
+            eventLoopGroup = EventLoopGroup.shared();
+        }
+        return eventLoopGroup;
+    }
+
+    private SocketChannel socketChannel;
+    private EventLoop eventLoop;
+    private SelectionKey opKey;
+    private final Queue<ByteBuffer> toSend = new ArrayDeque<>();
+    private final ByteBuffer[] gathering = new ByteBuffer[MAX_GATHERING_BUFFERS];
+    private boolean flushPending;
+    private final AtomicLong pendingBytes = new AtomicLong();
+    private final ReadSizePredictor readSize = new ReadSizePredictor();
+
+    private ConnectListener connectListener;
+    private final AtomicBoolean connectDone = new AtomicBoolean(false);
+    private HashedWheelTimer.Timeout connectTimeout;
+
+    public NIO(Callback callback) {
+        super(callback);
+    }
+
+    private final EventLoop.Handler handler = new EventLoop.Handler() {
+        @Override
+        public void onSelected(SelectionKey key) {
+            if (key.isConnectable()) {
+                finishConnect(key);
+                return;
+            }
+            if (key.isReadable()) {
+                read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                flush();
+            }
+        }
+    };
+
+    @Override
+    public boolean connect(String remote) {
+        return awaitConnect(remote);
+    }
+
+    @Override
+    public void connect(String remote, ConnectListener listener) {
+        String[] remoteBlocks = remote.split(":");
+        if (remoteBlocks.length < 2) {
+            listener.onComplete(false);
+            return;
+        }
+        InetAddress address;
+        int port;
+        try {
+            address = InetAddress.getByName(remoteBlocks[0].trim());
+        } catch (UnknownHostException e) {
+            callback.onException(e);
+            listener.onComplete(false);
+            return;
+        }
+        try {
+            port = Integer.parseInt(remoteBlocks[1].trim());
+        }
+        catch (NumberFormatException e) {
+            callback.onException(e);
+            listener.onComplete(false);
+            return;
+        }
+        connectListener = listener;
+        connectDone.set(false);
+        eventLoop = getEventLoopGroup().next();
+        try {
+            socketChannel = SocketChannel.open();
+            // SocketChannel.setOption 在 Android N 以下不可用
+            socketChannel.socket().setKeepAlive(keepAlive);
+            socketChannel.configureBlocking(false);
+            final boolean isConnected = socketChannel.connect(new InetSocketAddress(address, port));
+            if (!isConnected && connTimeout > 0) {
+                connectTimeout = HashedWheelTimer.shared().newTimeout(new Runnable() {
+                    @Override
+                    public void run() {
+                        eventLoop.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                connectFailed(null);
+                            }
+                        });
+                    }
+                }, connTimeout, TimeUnit.MILLISECONDS);
+            }
+            eventLoop.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        opKey = eventLoop.register(socketChannel, isConnected ? 0 : SelectionKey.OP_CONNECT, handler);
+                    } catch (IOException e) {
+                        connectFailed(e);
+                        return;
+                    }
+                    if (isConnected) {
+                        connectSucceeded();
+                    }
+                }
+            });
+        } catch (IOException e) {
+            connectFailed(e);
+        }
+    }
+
+    private void finishConnect(SelectionKey key) {
+        try {
+            if (socketChannel.finishConnect()) {
+                key.interestOps(0);
+                connectSucceeded();
+            }
+        } catch (IOException e) {
+            connectFailed(e);
+        }
+    }
+
+    private void connectSucceeded() {
+        if (!connectDone.compareAndSet(false, true)) {
+            return;
+        }
+        if (connectTimeout != null) {
+            connectTimeout.cancel();
+            connectTimeout = null;
+        }
+        callback.onConnected();
+        connectListener.onComplete(true);
+    }
+
+    private void connectFailed(IOException e) {
+        if (!connectDone.compareAndSet(false, true)) {
+            return;
+        }
+        if (connectTimeout != null) {
+            connectTimeout.cancel();
+            connectTimeout = null;
+        }
+        close();
+        if (e != null) {
+            callback.onException(e);
+        }
+        connectListener.onComplete(false);
+    }
+
+    @Override
+    public void disconnect() {
+        close();
+    }
+
+    /**
+     * 注销并关闭通道，可重复调用
+     */
+    private void close() {
+        if (eventLoop != null) {
+            eventLoop.deregister(opKey);
+        }
+        opKey = null;
+        try {
+            if (socketChannel != null) {
+                socketChannel.close();
+            }
+        } catch (IOException e) {
+            callback.onException(e);
+        }
+    }
+
+    private void read() {
+        for (int i = 0;i<MAX_READS_PER_WAKEUP;i++) {
+            ByteBuffer buffer = ByteBufferPool.direct().acquire(readSize.next());
+            int read;
+            try {
+                read = socketChannel.read(buffer);
+                readSize.record(read);
+                if (read > 0) {
+                    if (metrics != null) {
+                        metrics.onRead(read);
+                    }
+                    buffer.flip();
+                    callback.onReceived(buffer);
+                }
+            }
+            catch (IOException e) {
+                read = -1;
+            }
+            finally {
+                ByteBufferPool.direct().release(buffer);
+            }
+            if (read < 0) {
+                // 对端已关闭，注销并关闭通道，避免 selector 反复就绪
+                close();
+                callback.onDisconnected();
+                return;
+            }
+            if (read == 0) {
+                // 已读空
+                return;
+            }
+        }
+    }
+
+    private final Runnable flushTask = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    /**
+     * 在事件线程上把待发送数据尽量写出。
+     * 一次 gathering write 写出多个缓冲区，未写完的缓冲区留在队首，
+     * 写不动时才关注 OP_WRITE，队列清空后取消关注
+     */
+    private void flush() {
+        try {
+            while (true) {
+                int count = 0;
+                synchronized (toSend) {
+                    for (ByteBuffer buffer : toSend) {
+                        gathering[count++] = buffer;
+                        if (count == gathering.length) {
+                            break;
+                        }
+                    }
+                    if (count == 0) {
+                        flushPending = false;
+                        setInterest(SelectionKey.OP_WRITE, false);
+                        return;
+                    }
+                }
+                long written = socketChannel.write(gathering, 0, count);
+                if (written > 0) {
+                    if (metrics != null) {
+                        metrics.onWrite(written);
+                    }
+                    pendingBytes.addAndGet(-written);
+                    callback.onWritten((int) written);
+                }
+                boolean blocked = false;
+                synchronized (toSend) {
+                    for (int i = 0;i<count;i++) {
+                        if (gathering[i].hasRemaining()) {
+                            blocked = true;
+                            break;
+                        }
+                        ByteBufferPool.heap().release(toSend.poll());
+                    }
+                }
+                Arrays.fill(gathering, 0, count, null);
+                if (blocked) {
+                    // 发送缓冲区已满，等可写时再继续
+                    setInterest(SelectionKey.OP_WRITE, true);
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // 通道未连接或已关闭时会抛出非受检异常，同样要复位，否则之后的 write 不会再触发刷新
+            Arrays.fill(gathering, null);
+            synchronized (toSend) {
+                toSend.clear();
+                pendingBytes.set(0);
+                flushPending = false;
+            }
+            callback.onException(e);
+        }
+    }
+
+    private void setInterest(int ops, boolean enable) {
+        if (opKey != null && opKey.isValid()) {
+            int interest = opKey.interestOps();
+            int updated = enable ? interest | ops : interest & ~ops;
+            if (updated != interest) {
+                opKey.interestOps(updated);
+            }
+        }
+    }
+
+    private void updateInterest(final int ops, final boolean enable) {
+        eventLoop.execute(new Runnable() {
+            @Override
+            public void run() {
+                setInterest(ops, enable);
+            }
+        });
+    }
+
+    @Override
+    public void beginRead() {
+        updateInterest(SelectionKey.OP_READ, true);
+    }
+
+    @Override
+    public void stopRead() {
+        if (eventLoop != null) {
+            updateInterest(SelectionKey.OP_READ, false);
+        }
+    }
+
+    @Override
+    public void write(byte[] bytes) {
+        // 只读包装，避免调用方的数组被当作池中的缓冲区回收
+        write(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    @Override
+    public void write(ByteBuffer buffer) {
+        pendingBytes.addAndGet(buffer.remaining());
+        synchronized (toSend) {
+            toSend.offer(buffer);
+            if (flushPending) {
+                // 已有刷新任务或正在等待 OP_WRITE
+                return;
+            }
+            flushPending = true;
+        }
+        eventLoop.execute(flushTask);
+    }
+
+    @Override
+    public long pendingWriteBytes() {
+        return pendingBytes.get();
+    }
+}
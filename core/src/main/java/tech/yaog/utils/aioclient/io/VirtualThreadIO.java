@@ -0,0 +1,57 @@
+package tech.yaog.utils.aioclient.io;
+
+import java.lang.reflect.Method;
+
+/**
+ * 与 {@link BIO} 相同的阻塞式 io，但接收、连接以及 Bootstrap 的发送线程都是虚拟线程，
+ * 每个连接的线程开销很小，适合在服务端 JVM 上维持大量连接。
+ *
+ * 需要 Java 21 以上，通过反射调用 Thread.ofVirtual()，低版本 JVM（包括 Android）上退化为普通线程。
+ */
+public class VirtualThreadIO extends BIO {
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class);
+            unstarted = builder.getMethod("unstarted", Runnable.class);
+        } catch (Exception e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    /**
+     * 当前 JVM 是否支持虚拟线程
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    public VirtualThreadIO(Callback callback) {
+        super(callback);
+    }
+
+    @Override
+    public Thread newThread(Runnable task, String name) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name);
+                return (Thread) UNSTARTED.invoke(builder, task);
+            } catch (Exception e) {
+                // 退化为普通线程
+            }
+        }
+        return super.newThread(task, name);
+    }
+}
@@ -0,0 +1,120 @@
+package tech.yaog.utils.aioclient.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * 连接的运行指标，由 Bootstrap 和 io 在收发路径上记录
+ *
+ * 计数使用分段计数器，耗时使用固定内存的直方图，记录时不加锁，
+ * 可以随时 {@link #snapshot()} 而不影响 io 线程。同一个实例可以在多个 Bootstrap 间共用以汇总指标。
+ */
+public class ClientMetrics {
+
+    private final Counter bytesRead = new Counter();
+    private final Counter bytesWritten = new Counter();
+    private final Counter reads = new Counter();
+    private final Counter writes = new Counter();
+    private final Counter framesReceived = new Counter();
+    private final Counter messagesDecoded = new Counter();
+    private final Counter messagesSent = new Counter();
+    private final Counter exceptions = new Counter();
+    private final Counter queuedMessages = new Counter();
+    private final Counter handlerBacklog = new Counter();
+    private final Histogram encodeNanos = new Histogram();
+    private final Histogram decodeNanos = new Histogram();
+    private final Histogram handleNanos = new Histogram();
+
+    private HashedWheelTimer.Timeout exportTimeout;
+
+    /**
+     * io 从 socket 读到数据
+     */
+    public void onRead(int bytes) {
+        reads.increment();
+        bytesRead.add(bytes);
+    }
+
+    /**
+     * io 向 socket 写出数据
+     */
+    public void onWrite(long bytes) {
+        writes.increment();
+        bytesWritten.add(bytes);
+    }
+
+    public void onFrame() {
+        framesReceived.increment();
+    }
+
+    public void onDecoded(long nanos) {
+        messagesDecoded.increment();
+        decodeNanos.record(nanos);
+    }
+
+    public void onEncoded(long nanos) {
+        messagesSent.increment();
+        encodeNanos.record(nanos);
+    }
+
+    public void onHandled(long nanos) {
+        handleNanos.record(nanos);
+    }
+
+    public void onException() {
+        exceptions.increment();
+    }
+
+    /**
+     * 发送队列中的消息数变化
+     */
+    public void onQueued(int delta) {
+        queuedMessages.add(delta);
+    }
+
+    /**
+     * 已提交但尚未执行的处理器任务数变化
+     */
+    public void onHandlerBacklog(int delta) {
+        handlerBacklog.add(delta);
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.currentTimeMillis(), bytesRead.sum(), bytesWritten.sum(), reads.sum(), writes.sum(),
+                framesReceived.sum(), messagesDecoded.sum(), messagesSent.sum(), exceptions.sum(),
+                queuedMessages.sum(), handlerBacklog.sum(),
+                encodeNanos.snapshot(), decodeNanos.snapshot(), handleNanos.snapshot());
+    }
+
+    /**
+     * 在共享定时器上定期导出快照，重复调用时替换之前的导出
+     */
+    public synchronized void startExport(final MetricsExporter exporter, final long interval, final TimeUnit unit) {
+        stopExport();
+        exportTimeout = HashedWheelTimer.shared().newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (ClientMetrics.this) {
+                    if (exportTimeout == null || exportTimeout.isCancelled()) {
+                        return;
+                    }
+                    exportTimeout = HashedWheelTimer.shared().newTimeout(this, interval, unit);
+                }
+                try {
+                    exporter.export(snapshot());
+                }
+                catch (Throwable t) {
+                    t.printStackTrace();
+                }
+            }
+        }, interval, unit);
+    }
+
+    public synchronized void stopExport() {
+        if (exportTimeout != null) {
+            exportTimeout.cancel();
+            exportTimeout = null;
+        }
+    }
+}
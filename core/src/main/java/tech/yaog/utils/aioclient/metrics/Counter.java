@@ -0,0 +1,48 @@
+package tech.yaog.utils.aioclient.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段计数器，与 LongAdder 类似：不同线程累加到不同的槽位上，读取时求和，
+ * 多线程频繁累加时不会争用同一个缓存行。LongAdder 在 Android N 以下不可用，因此自行实现
+ */
+public class Counter {
+
+    /**
+     * 相邻槽位间隔 8 个 long（64 字节），避免伪共享
+     */
+    private static final int PADDING = 8;
+    private static final int STRIPES;
+
+    static {
+        int stripes = Integer.highestOneBit(Math.max(Runtime.getRuntime().availableProcessors(), 1) * 2 - 1) << 1;
+        STRIPES = Math.min(stripes, 64);
+    }
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long value) {
+        cells.getAndAdd(index(), value);
+    }
+
+    /**
+     * 各槽位之和，与并发的累加之间不是原子的快照
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0;i<STRIPES;i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private static int index() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ id >>> 32) * 0x9E3779B9;
+        return ((h >>> 16) & (STRIPES - 1)) * PADDING;
+    }
+}
@@ -0,0 +1,11 @@
+package tech.yaog.utils.aioclient.metrics;
+
+/**
+ * 定期接收指标快照，可以转发到日志或监控系统
+ */
+public interface MetricsExporter {
+    /**
+     * 在共享定时线程上调用，不应阻塞
+     */
+    void export(MetricsSnapshot snapshot);
+}
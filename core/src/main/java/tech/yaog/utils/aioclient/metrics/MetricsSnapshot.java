@@ -0,0 +1,124 @@
+package tech.yaog.utils.aioclient.metrics;
+
+/**
+ * 某一时刻的指标，累计值自创建 {@link ClientMetrics} 起计算，
+ * 速率可由两次快照的差值除以 timestamp 之差得到
+ */
+public class MetricsSnapshot {
+
+    private final long timestamp;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long reads;
+    private final long writes;
+    private final long framesReceived;
+    private final long messagesDecoded;
+    private final long messagesSent;
+    private final long exceptions;
+    private final long queuedMessages;
+    private final long handlerBacklog;
+    private final Histogram.Snapshot encodeNanos;
+    private final Histogram.Snapshot decodeNanos;
+    private final Histogram.Snapshot handleNanos;
+
+    MetricsSnapshot(long timestamp, long bytesRead, long bytesWritten, long reads, long writes,
+                    long framesReceived, long messagesDecoded, long messagesSent, long exceptions,
+                    long queuedMessages, long handlerBacklog,
+                    Histogram.Snapshot encodeNanos, Histogram.Snapshot decodeNanos, Histogram.Snapshot handleNanos) {
+        this.timestamp = timestamp;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.reads = reads;
+        this.writes = writes;
+        this.framesReceived = framesReceived;
+        this.messagesDecoded = messagesDecoded;
+        this.messagesSent = messagesSent;
+        this.exceptions = exceptions;
+        this.queuedMessages = queuedMessages;
+        this.handlerBacklog = handlerBacklog;
+        this.encodeNanos = encodeNanos;
+        this.decodeNanos = decodeNanos;
+        this.handleNanos = handleNanos;
+    }
+
+    /**
+     * 快照时间（毫秒）
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 从 socket 读取的次数
+     */
+    public long getReads() {
+        return reads;
+    }
+
+    /**
+     * 向 socket 写出的次数，与发送消息数之比反映合并发送的效果
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    public long getFramesReceived() {
+        return framesReceived;
+    }
+
+    public long getMessagesDecoded() {
+        return messagesDecoded;
+    }
+
+    public long getMessagesSent() {
+        return messagesSent;
+    }
+
+    public long getExceptions() {
+        return exceptions;
+    }
+
+    /**
+     * 发送队列中的消息数
+     */
+    public long getQueuedMessages() {
+        return queuedMessages;
+    }
+
+    /**
+     * 已提交但尚未执行的处理器任务数
+     */
+    public long getHandlerBacklog() {
+        return handlerBacklog;
+    }
+
+    public Histogram.Snapshot getEncodeNanos() {
+        return encodeNanos;
+    }
+
+    public Histogram.Snapshot getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    public Histogram.Snapshot getHandleNanos() {
+        return handleNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "bytesRead=" + bytesRead + ", bytesWritten=" + bytesWritten
+                + ", reads=" + reads + ", writes=" + writes
+                + ", framesReceived=" + framesReceived + ", messagesDecoded=" + messagesDecoded
+                + ", messagesSent=" + messagesSent + ", exceptions=" + exceptions
+                + ", queuedMessages=" + queuedMessages + ", handlerBacklog=" + handlerBacklog
+                + ", encodeNanos[" + encodeNanos + "], decodeNanos[" + decodeNanos + "], handleNanos[" + handleNanos + "]";
+    }
+}
@@ -0,0 +1,358 @@
+package tech.yaog.utils.aioclient.pool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.yaog.utils.aioclient.Bootstrap;
+import tech.yaog.utils.aioclient.io.IO;
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * 连接池，在多个服务端地址上各保持若干条连接，发送时按策略选择其中一条
+ *
+ * 连接由 {@link BootstrapFactory} 创建，编解码器、拆包器、处理器等都在 factory 中设置。
+ * 池中所有连接共用同一个处理器线程池（会覆盖 factory 中设置的 executor），
+ * NIO/AIO 的 selector 线程本来就是进程内共用的。
+ * 断开的连接立即移出轮换，由定时的健康检查重新连接，连上后放回。
+ * 重连由连接池负责，factory 创建的 Bootstrap 不能开启 autoReconnect；重连时发送队列与未完成的请求保留。
+ * <pre>
+ * ConnectionPool pool = new ConnectionPool(new ConnectionPool.BootstrapFactory() {
+ *     public Bootstrap create(String endpoint) {
+ *         return new Bootstrap().addEncoder(...).addDecoder(...).addHandler(...);
+ *     }
+ * }, Arrays.asList("10.0.0.1:6000", "10.0.0.2:6000"), 2)
+ *     .strategy(ConnectionPool.Strategy.LEAST_PENDING_BYTES);
+ * pool.start();
+ * pool.send(msg);
+ * </pre>
+ */
+public class ConnectionPool {
+
+    public interface BootstrapFactory {
+        /**
+         * 为指定地址创建一个尚未连接的 Bootstrap
+         */
+        Bootstrap create(String endpoint);
+    }
+
+    public enum Strategy {
+        /**
+         * 依次轮流使用（默认）
+         */
+        ROUND_ROBIN,
+        /**
+         * 选择待发送字节数最少的连接
+         */
+        LEAST_PENDING_BYTES,
+        /**
+         * 按 {@link Bootstrap.KeyExtractor} 取出的键固定到同一条连接，该连接不可用时顺延到下一条
+         */
+        KEY_AFFINITY
+    }
+
+    private final BootstrapFactory factory;
+    private final List<String> endpoints;
+    private final int connectionsPerEndpoint;
+    private Strategy strategy = Strategy.ROUND_ROBIN;
+    private Bootstrap.KeyExtractor keyExtractor;
+    private long healthCheckInterval = 5000;
+    private Executor executor;
+    /**
+     * start 时自行创建的线程池，close 时关闭
+     */
+    private ThreadPoolExecutor ownedExecutor;
+
+    private volatile List<Connection> connections = Collections.emptyList();
+    private final AtomicInteger index = new AtomicInteger();
+    private volatile boolean running;
+    private HashedWheelTimer.Timeout healthCheck;
+
+    /**
+     * @param connectionsPerEndpoint 每个地址保持的连接数
+     */
+    public ConnectionPool(BootstrapFactory factory, List<String> endpoints, int connectionsPerEndpoint) {
+        if (endpoints.isEmpty() || connectionsPerEndpoint <= 0) {
+            throw new IllegalArgumentException("no connections to create");
+        }
+        this.factory = factory;
+        this.endpoints = new ArrayList<>(endpoints);
+        this.connectionsPerEndpoint = connectionsPerEndpoint;
+    }
+
+    public ConnectionPool strategy(Strategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    /**
+     * 按键固定连接，相当于 strategy(KEY_AFFINITY)
+     */
+    public ConnectionPool strategy(Bootstrap.KeyExtractor keyExtractor) {
+        this.strategy = Strategy.KEY_AFFINITY;
+        this.keyExtractor = keyExtractor;
+        return this;
+    }
+
+    /**
+     * 健康检查间隔（毫秒），默认 5000
+     */
+    public ConnectionPool healthCheckInterval(long healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+        return this;
+    }
+
+    /**
+     * 池中所有连接共用的处理器线程池，不设置时创建一个线程数与 CPU 核数相同的线程池，close 时关闭。
+     * 外部传入的线程池由调用方负责关闭
+     */
+    public ConnectionPool executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * 创建全部连接并异步连接，之后定时检查
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        if (strategy == Strategy.KEY_AFFINITY && keyExtractor == null) {
+            throw new IllegalStateException("KEY_AFFINITY requires a KeyExtractor");
+        }
+        List<Connection> connections = new ArrayList<>();
+        // 交错排列，轮流使用时相邻两次落在不同地址上
+        for (int i = 0;i<connectionsPerEndpoint;i++) {
+            for (String endpoint : endpoints) {
+                Bootstrap bootstrap = factory.create(endpoint);
+                if (bootstrap.isAutoReconnect()) {
+                    throw new IllegalStateException("pooled bootstraps must not enable autoReconnect");
+                }
+                connections.add(new Connection(endpoint, bootstrap));
+            }
+        }
+        if (executor == null) {
+            final AtomicInteger threadIndex = new AtomicInteger();
+            int threads = Runtime.getRuntime().availableProcessors();
+            ownedExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ConnectionPool worker " + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor = ownedExecutor;
+        }
+        for (Connection connection : connections) {
+            connection.bootstrap.executor(executor);
+        }
+        running = true;
+        this.connections = connections;
+        for (Connection connection : connections) {
+            connection.connect();
+        }
+        scheduleHealthCheck();
+    }
+
+    /**
+     * 停止健康检查并断开全部连接，关闭 start 时自行创建的线程池
+     */
+    public synchronized void close() {
+        running = false;
+        if (healthCheck != null) {
+            healthCheck.cancel();
+            healthCheck = null;
+        }
+        for (Connection connection : connections) {
+            connection.bootstrap.disconnect();
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+            ownedExecutor = null;
+            executor = null;
+        }
+    }
+
+    /**
+     * 按策略选择一条可用连接发送
+     * @return 没有可用连接或该连接拒绝入队时返回 false
+     */
+    public boolean send(Object msg) {
+        Bootstrap bootstrap = select(msg);
+        return bootstrap != null && bootstrap.send(msg);
+    }
+
+    /**
+     * 按策略为该消息选择一条可用连接
+     * @return 没有可用连接时返回 null
+     */
+    public Bootstrap select(Object msg) {
+        List<Connection> connections = this.connections;
+        int size = connections.size();
+        if (size == 0) {
+            return null;
+        }
+        switch (strategy) {
+            case LEAST_PENDING_BYTES: {
+                Connection selected = null;
+                long least = Long.MAX_VALUE;
+                int start = (index.getAndIncrement() & Integer.MAX_VALUE) % size;
+                for (int i = 0;i<size;i++) {
+                    Connection connection = connections.get((start + i) % size);
+                    if (!connection.isAvailable()) {
+                        continue;
+                    }
+                    long pending = connection.bootstrap.pendingBytes();
+                    if (pending < least) {
+                        least = pending;
+                        selected = connection;
+                        if (pending == 0) {
+                            break;
+                        }
+                    }
+                }
+                return selected != null ? selected.bootstrap : null;
+            }
+            case KEY_AFFINITY: {
+                Object key = keyExtractor.key(msg);
+                int h = key == null ? 0 : key.hashCode();
+                h ^= h >>> 16;
+                return firstAvailable((h & Integer.MAX_VALUE) % size);
+            }
+            default:
+                return firstAvailable((index.getAndIncrement() & Integer.MAX_VALUE) % size);
+        }
+    }
+
+    private Bootstrap firstAvailable(int start) {
+        List<Connection> connections = this.connections;
+        int size = connections.size();
+        for (int i = 0;i<size;i++) {
+            Connection connection = connections.get((start + i) % size);
+            if (connection.isAvailable()) {
+                return connection.bootstrap;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 当前可用的连接数
+     */
+    public int availableConnections() {
+        int count = 0;
+        for (Connection connection : connections) {
+            if (connection.isAvailable()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 全部连接，包括不可用的
+     */
+    public List<Bootstrap> connections() {
+        List<Bootstrap> bootstraps = new ArrayList<>(connections.size());
+        for (Connection connection : connections) {
+            bootstraps.add(connection.bootstrap);
+        }
+        return Collections.unmodifiableList(bootstraps);
+    }
+
+    private void scheduleHealthCheck() {
+        healthCheck = HashedWheelTimer.shared().newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                // 重连放到线程池中执行，不占用定时线程
+                Executor executor = ConnectionPool.this.executor;
+                if (!running || executor == null) {
+                    return;
+                }
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            checkHealth();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    // 已关闭
+                }
+            }
+        }, healthCheckInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void checkHealth() {
+        List<Connection> connections;
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            connections = this.connections;
+        }
+        // 重连时关闭旧连接可能阻塞，不持有锁，避免阻塞 close
+        for (Connection connection : connections) {
+            if (!running) {
+                return;
+            }
+            if (!connection.isAvailable()) {
+                connection.reconnect();
+            }
+        }
+        synchronized (this) {
+            if (running) {
+                scheduleHealthCheck();
+            }
+        }
+    }
+
+    private class Connection {
+        final String endpoint;
+        final Bootstrap bootstrap;
+        final AtomicBoolean connecting = new AtomicBoolean(false);
+        final IO.ConnectListener listener = new IO.ConnectListener() {
+            @Override
+            public void onComplete(boolean connected) {
+                connecting.set(false);
+                if (connected && !running) {
+                    bootstrap.disconnect();
+                }
+            }
+        };
+
+        Connection(String endpoint, Bootstrap bootstrap) {
+            this.endpoint = endpoint;
+            this.bootstrap = bootstrap;
+        }
+
+        boolean isAvailable() {
+            return bootstrap.isConnected();
+        }
+
+        void connect() {
+            if (connecting.compareAndSet(false, true)) {
+                bootstrap.connect(endpoint, listener);
+            }
+        }
+
+        /**
+         * 不调用 disconnect，发送队列与未完成的请求保留到重连之后
+         */
+        void reconnect() {
+            if (connecting.compareAndSet(false, true)) {
+                bootstrap.reconnect(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+import tech.yaog.utils.aioclient.splitter.matcher.ByteMatcher;
+
+public class DelimiterSplitter extends AbstractSplitter {
+
+    private final ByteMatcher matcher;
+    /**
+     * 未消费数据中已确认不是分隔符起点的字节数
+     */
+    private int scanned = 0;
+
+    public DelimiterSplitter(byte[] delimiter) {
+        this.matcher = ByteMatcher.of(delimiter);
+    }
+
+    /**
+     * 多个分隔符，任意一个出现即断包，同一位置均可匹配时取最长的分隔符
+     */
+    public DelimiterSplitter(byte[]... delimiters) {
+        this.matcher = ByteMatcher.of(delimiters);
+    }
+
+    @Override
+    public void split(byte[] raw, int offset, int length, Frames frames) {
+        int end = offset + length;
+        int start = offset;
+        int from = offset + scanned;
+        int found;
+        while ((found = matcher.indexOf(raw, from, end)) >= 0) {
+            int delimiterLength = matcher.matchedLength();
+            frames.add(found - start, delimiterLength);
+            start = found + delimiterLength;
+            from = start;
+        }
+        scanned = Math.max(end - start - matcher.maxLength() + 1, 0);
+    }
+
+    @Override
+    public void reset() {
+        scanned = 0;
+    }
+}
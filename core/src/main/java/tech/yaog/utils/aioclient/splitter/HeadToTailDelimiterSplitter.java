@@ -0,0 +1,68 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+import tech.yaog.utils.aioclient.splitter.matcher.ByteMatcher;
+
+public class HeadToTailDelimiterSplitter extends AbstractSplitter {
+
+    private final ByteMatcher head;
+    private final ByteMatcher tail;
+    private final int headLength;
+    /**
+     * 未消费数据是否以头部标识开始
+     */
+    private boolean headFound = false;
+    /**
+     * 未消费数据中已扫描过的字节数（未找到头部时为头部扫描进度，否则为尾部扫描进度）
+     */
+    private int scanned = 0;
+
+    public HeadToTailDelimiterSplitter(byte[] head, byte[] tail) {
+        this.head = ByteMatcher.of(head);
+        this.tail = ByteMatcher.of(tail);
+        this.headLength = head.length;
+    }
+
+    @Override
+    public void split(byte[] raw, int offset, int length, Frames frames) {
+        int end = offset + length;
+        int start = offset;
+        int from = offset + scanned;
+        while (true) {
+            if (!headFound) {
+                int found = head.indexOf(raw, from, end);
+                if (found < 0) {
+                    // 留足头部空间，防止头部标识断包的可能性
+                    int drop = end - start - (headLength - 1);
+                    if (drop > 0) {
+                        frames.add(0, drop);
+                    }
+                    scanned = 0;
+                    return;
+                }
+                if (found > start) {
+                    // 丢掉多余的杂讯
+                    frames.add(0, found - start);
+                    start = found;
+                }
+                headFound = true;
+                from = start + headLength;
+            }
+            int found = tail.indexOf(raw, from, end);
+            if (found < 0) {
+                scanned = Math.max(end - start - tail.maxLength() + 1, headLength);
+                return;
+            }
+            frames.add(headLength, found - start - headLength, tail.matchedLength());
+            start = found + tail.matchedLength();
+            from = start;
+            headFound = false;
+        }
+    }
+
+    @Override
+    public void reset() {
+        headFound = false;
+        scanned = 0;
+    }
+}
@@ -0,0 +1,202 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+
+/**
+ * 按长度字段拆包
+ *
+ * 帧总长 = 长度字段值 + lengthAdjustment + lengthFieldOffset + 长度字段宽度，
+ * 只读取长度字段，不扫描负载数据。
+ * 超出 maxFrameLength 的帧会被整体丢弃并通过 {@link Callback#onException(Throwable)} 报告。
+ */
+public class LengthFieldSplitter extends AbstractSplitter {
+
+    /**
+     * 长度字段为无符号 varint (LEB128，低位在前，每字节 7 位)
+     */
+    public static final int VARINT = -1;
+
+    private static final int MAX_VARINT_LENGTH = 5;
+
+    private final ByteOrder byteOrder;
+    private final int maxFrameLength;
+    private final int lengthFieldOffset;
+    private final int lengthFieldLength;
+    private final int lengthAdjustment;
+    private final int initialBytesToStrip;
+
+    /**
+     * 尚未到达、需要继续丢弃的超长帧字节数
+     */
+    private long discarding = 0;
+
+    public LengthFieldSplitter(int lengthFieldOffset, int lengthFieldLength) {
+        this(Integer.MAX_VALUE, lengthFieldOffset, lengthFieldLength, 0, 0);
+    }
+
+    public LengthFieldSplitter(int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip) {
+        this(ByteOrder.BIG_ENDIAN, maxFrameLength, lengthFieldOffset, lengthFieldLength, lengthAdjustment, initialBytesToStrip);
+    }
+
+    /**
+     * @param byteOrder 长度字段字节序，varint 时忽略
+     * @param maxFrameLength 帧最大长度（含头部）
+     * @param lengthFieldOffset 长度字段在帧内的偏移
+     * @param lengthFieldLength 长度字段宽度，1/2/3/4/8 或 {@link #VARINT}
+     * @param lengthAdjustment 长度字段值的修正量，如长度字段值包含头部时为负数
+     * @param initialBytesToStrip 交给解码器前从帧头部去掉的字节数
+     */
+    public LengthFieldSplitter(ByteOrder byteOrder, int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip) {
+        if (byteOrder == null) {
+            throw new IllegalArgumentException("byteOrder is null");
+        }
+        if (maxFrameLength <= 0) {
+            throw new IllegalArgumentException("maxFrameLength must be positive: " + maxFrameLength);
+        }
+        if (lengthFieldOffset < 0) {
+            throw new IllegalArgumentException("lengthFieldOffset must be non-negative: " + lengthFieldOffset);
+        }
+        if (initialBytesToStrip < 0) {
+            throw new IllegalArgumentException("initialBytesToStrip must be non-negative: " + initialBytesToStrip);
+        }
+        switch (lengthFieldLength) {
+            case 1:
+            case 2:
+            case 3:
+            case 4:
+            case 8:
+            case VARINT:
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported lengthFieldLength: " + lengthFieldLength);
+        }
+        this.byteOrder = byteOrder;
+        this.maxFrameLength = maxFrameLength;
+        this.lengthFieldOffset = lengthFieldOffset;
+        this.lengthFieldLength = lengthFieldLength;
+        this.lengthAdjustment = lengthAdjustment;
+        this.initialBytesToStrip = initialBytesToStrip;
+    }
+
+    public ByteOrder getByteOrder() {
+        return byteOrder;
+    }
+
+    public int getLengthFieldOffset() {
+        return lengthFieldOffset;
+    }
+
+    public int getLengthFieldLength() {
+        return lengthFieldLength;
+    }
+
+    public int getLengthAdjustment() {
+        return lengthAdjustment;
+    }
+
+    public int getInitialBytesToStrip() {
+        return initialBytesToStrip;
+    }
+
+    @Override
+    public void split(byte[] raw, int offset, int length, Frames frames) {
+        int position = 0;
+        if (discarding > 0) {
+            int drop = (int) Math.min(discarding, length);
+            frames.add(0, drop);
+            discarding -= drop;
+            position += drop;
+        }
+        while (true) {
+            int available = length - position;
+            int start = offset + position;
+            int lengthFieldEnd;
+            long value;
+            if (lengthFieldLength == VARINT) {
+                value = 0;
+                lengthFieldEnd = -1;
+                for (int i = 0;i<MAX_VARINT_LENGTH;i++) {
+                    int index = lengthFieldOffset + i;
+                    if (index >= available) {
+                        return;
+                    }
+                    byte b = raw[start + index];
+                    value |= (long) (b & 0x7F) << (7 * i);
+                    if (b >= 0) {
+                        lengthFieldEnd = index + 1;
+                        break;
+                    }
+                }
+                if (lengthFieldEnd < 0) {
+                    // 长度字段损坏，跳过后重新同步
+                    lengthFieldEnd = lengthFieldOffset + MAX_VARINT_LENGTH;
+                    frames.add(0, lengthFieldEnd);
+                    position += lengthFieldEnd;
+                    reportException("Malformed varint length field");
+                    continue;
+                }
+            }
+            else {
+                lengthFieldEnd = lengthFieldOffset + lengthFieldLength;
+                if (available < lengthFieldEnd) {
+                    return;
+                }
+                value = readLength(raw, start + lengthFieldOffset);
+            }
+
+            long frameLength = value + lengthAdjustment + lengthFieldEnd;
+            if (value < 0 || frameLength < lengthFieldEnd || frameLength < initialBytesToStrip) {
+                frames.add(0, lengthFieldEnd);
+                position += lengthFieldEnd;
+                reportException("Invalid frame length: " + frameLength);
+                continue;
+            }
+            if (frameLength > maxFrameLength) {
+                int drop = (int) Math.min(frameLength, available);
+                frames.add(0, drop);
+                position += drop;
+                discarding = frameLength - drop;
+                reportException("Frame length " + frameLength + " exceeds " + maxFrameLength);
+                if (discarding > 0) {
+                    return;
+                }
+                continue;
+            }
+            if (available < frameLength) {
+                return;
+            }
+            int frame = (int) frameLength;
+            frames.add(initialBytesToStrip, frame - initialBytesToStrip, 0);
+            position += frame;
+        }
+    }
+
+    @Override
+    public void reset() {
+        discarding = 0;
+    }
+
+    private long readLength(byte[] raw, int index) {
+        long value = 0;
+        if (byteOrder == ByteOrder.BIG_ENDIAN) {
+            for (int i = 0;i<lengthFieldLength;i++) {
+                value = (value << 8) | (raw[index + i] & 0xFF);
+            }
+        }
+        else {
+            for (int i = lengthFieldLength - 1;i>=0;i--) {
+                value = (value << 8) | (raw[index + i] & 0xFF);
+            }
+        }
+        return value;
+    }
+
+    private void reportException(String message) {
+        if (callback != null) {
+            callback.onException(new IOException(message));
+        }
+    }
+}
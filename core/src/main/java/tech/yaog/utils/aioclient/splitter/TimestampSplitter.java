@@ -0,0 +1,80 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+import tech.yaog.utils.aioclient.timer.HashedWheelTimer;
+
+/**
+ * 按时间间隔断包，超过 interval 毫秒没有新数据时把已收到的数据作为一帧。
+ * 仅在有未断包的数据时才在共享定时器上登记检查任务，空闲连接不占用任何线程。
+ * 超时后只通知宿主，由宿主在自己的线程上重新拆包，定时线程上不做解码。
+ */
+public class TimestampSplitter extends AbstractSplitter {
+
+    private final HashedWheelTimer timer;
+    private final long intervalNanos;
+
+    private long lastPacket = -1;
+    private int currentLength = 0;
+    private HashedWheelTimer.Timeout timeout;
+
+    private final Runnable check = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (TimestampSplitter.this) {
+                timeout = null;
+                if (currentLength <= 0) {
+                    return;
+                }
+                long remaining = intervalNanos - (System.nanoTime() - lastPacket);
+                if (remaining > 0) {
+                    // 期间又收到了数据，按最后一次收包时间重新登记
+                    timeout = timer.newTimeout(this, remaining, TimeUnit.NANOSECONDS);
+                    return;
+                }
+            }
+            Callback callback = TimestampSplitter.this.callback;
+            if (callback != null) {
+                callback.requestSplit();
+            }
+        }
+    };
+
+    public TimestampSplitter(long interval) {
+        this(interval, HashedWheelTimer.shared());
+    }
+
+    public TimestampSplitter(long interval, HashedWheelTimer timer) {
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+        this.timer = timer;
+    }
+
+    @Override
+    public void split(byte[] raw, int offset, int length, Frames frames) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (length > currentLength) {
+                this.currentLength = length;
+                this.lastPacket = now;
+                if (timeout == null) {
+                    timeout = timer.newTimeout(check, intervalNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            else if (length > 0 && now - lastPacket >= intervalNanos) {
+                frames.add(length, 0);
+                reset();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void reset() {
+        currentLength = 0;
+        lastPacket = -1;
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+}
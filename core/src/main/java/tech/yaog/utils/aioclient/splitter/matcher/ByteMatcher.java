@@ -0,0 +1,61 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+/**
+ * 字节序列查找器
+ *
+ * 根据标识长度选择查找算法：单字节走 SWAR 快速扫描，2~3 字节先用 SWAR 定位首字节再校验，
+ * 更长的标识使用 Boyer-Moore-Horspool，多个标识使用多模式匹配。
+ * 实例内部带有缓存，非线程安全。
+ */
+public abstract class ByteMatcher {
+
+    private static final int HORSPOOL_THRESHOLD = 4;
+
+    public static ByteMatcher of(byte[] pattern) {
+        if (pattern == null || pattern.length == 0) {
+            throw new IllegalArgumentException("pattern is empty");
+        }
+        if (pattern.length == 1) {
+            return new SingleByteMatcher(pattern[0]);
+        }
+        if (pattern.length < HORSPOOL_THRESHOLD) {
+            return new PrefixScanMatcher(pattern);
+        }
+        return new HorspoolMatcher(pattern);
+    }
+
+    public static ByteMatcher of(byte[]... patterns) {
+        if (patterns == null || patterns.length == 0) {
+            throw new IllegalArgumentException("patterns is empty");
+        }
+        if (patterns.length == 1) {
+            return of(patterns[0]);
+        }
+        return new MultiPatternMatcher(patterns);
+    }
+
+    /**
+     * 在 raw[from, to) 中查找第一个完整出现的标识
+     * @return 标识起始位置，未找到返回 -1
+     */
+    public abstract int indexOf(byte[] raw, int from, int to);
+
+    /**
+     * 最近一次查找成功时匹配到的标识长度
+     */
+    public abstract int matchedLength();
+
+    /**
+     * 最长标识的长度，距离末尾不足该长度的位置在数据补全前无法确定是否匹配
+     */
+    public abstract int maxLength();
+
+    static boolean equals(byte[] raw, int offset, byte[] pattern, int patternOffset) {
+        for (int i = patternOffset;i<pattern.length;i++) {
+            if (raw[offset + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+import java.util.Arrays;
+
+/**
+ * Boyer-Moore-Horspool 查找，适用于较长的标识
+ */
+class HorspoolMatcher extends ByteMatcher {
+
+    private final byte[] pattern;
+    private final int[] shift = new int[256];
+
+    HorspoolMatcher(byte[] pattern) {
+        this.pattern = pattern.clone();
+        int last = pattern.length - 1;
+        Arrays.fill(shift, pattern.length);
+        for (int i = 0;i<last;i++) {
+            shift[pattern[i] & 0xFF] = last - i;
+        }
+    }
+
+    @Override
+    public int indexOf(byte[] raw, int from, int to) {
+        int last = pattern.length - 1;
+        byte lastByte = pattern[last];
+        int i = from;
+        while (i + last < to) {
+            byte b = raw[i + last];
+            if (b == lastByte && equals(raw, i, pattern, 0)) {
+                return i;
+            }
+            i += shift[b & 0xFF];
+        }
+        return -1;
+    }
+
+    @Override
+    public int matchedLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int maxLength() {
+        return pattern.length;
+    }
+}
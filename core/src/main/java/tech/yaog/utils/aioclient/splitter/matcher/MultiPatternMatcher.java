@@ -0,0 +1,113 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 多标识查找
+ *
+ * 按首字节分桶，扫描时只在首字节命中的位置校验该桶内的标识。
+ * 同一位置有多个标识可匹配时取最长的一个；较长的标识因数据不完整而无法判定时停止查找，等待后续数据。
+ */
+class MultiPatternMatcher extends ByteMatcher {
+
+    private final byte[][][] buckets = new byte[256][][];
+    private final int minLength;
+    private final int maxLength;
+    /**
+     * 所有标识首字节相同时可以用 SWAR 定位
+     */
+    private final Swar swar;
+    private final byte commonFirst;
+    private int matchedLength;
+
+    MultiPatternMatcher(byte[]... patterns) {
+        List<byte[]> sorted = new ArrayList<>();
+        for (byte[] pattern : patterns) {
+            if (pattern == null || pattern.length == 0) {
+                throw new IllegalArgumentException("pattern is empty");
+            }
+            sorted.add(pattern.clone());
+        }
+        Collections.sort(sorted, new Comparator<byte[]>() {
+            @Override
+            public int compare(byte[] l, byte[] r) {
+                return r.length - l.length;
+            }
+        });
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        boolean sameFirst = true;
+        for (byte[] pattern : sorted) {
+            int index = pattern[0] & 0xFF;
+            byte[][] bucket = buckets[index];
+            bucket = bucket == null ? new byte[1][] : Arrays.copyOf(bucket, bucket.length + 1);
+            bucket[bucket.length - 1] = pattern;
+            buckets[index] = bucket;
+            min = Math.min(min, pattern.length);
+            max = Math.max(max, pattern.length);
+            sameFirst &= pattern[0] == sorted.get(0)[0];
+        }
+        minLength = min;
+        maxLength = max;
+        swar = sameFirst ? new Swar() : null;
+        commonFirst = sorted.get(0)[0];
+    }
+
+    @Override
+    public int indexOf(byte[] raw, int from, int to) {
+        int last = to - minLength;
+        for (int i = from;i<=last;i++) {
+            byte[][] bucket;
+            if (swar != null) {
+                i = swar.indexOf(raw, i, last + 1, commonFirst);
+                if (i < 0) {
+                    return -1;
+                }
+                bucket = buckets[commonFirst & 0xFF];
+            }
+            else {
+                bucket = buckets[raw[i] & 0xFF];
+                if (bucket == null) {
+                    continue;
+                }
+            }
+            for (byte[] pattern : bucket) {
+                if (i + pattern.length > to) {
+                    if (equals(raw, i, pattern, 1, to - i)) {
+                        // 更长的标识可能在后续数据中补全，暂不判定
+                        return -1;
+                    }
+                    continue;
+                }
+                if (equals(raw, i, pattern, 1)) {
+                    matchedLength = pattern.length;
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equals(byte[] raw, int offset, byte[] pattern, int patternOffset, int length) {
+        for (int i = patternOffset;i<length;i++) {
+            if (raw[offset + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int matchedLength() {
+        return matchedLength;
+    }
+
+    @Override
+    public int maxLength() {
+        return maxLength;
+    }
+}
@@ -0,0 +1,41 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+/**
+ * 短标识：用 SWAR 定位首字节，再校验剩余字节
+ */
+class PrefixScanMatcher extends ByteMatcher {
+
+    private final byte[] pattern;
+    private final Swar swar = new Swar();
+
+    PrefixScanMatcher(byte[] pattern) {
+        this.pattern = pattern.clone();
+    }
+
+    @Override
+    public int indexOf(byte[] raw, int from, int to) {
+        int last = to - pattern.length;
+        int i = from;
+        while (i <= last) {
+            i = swar.indexOf(raw, i, last + 1, pattern[0]);
+            if (i < 0) {
+                return -1;
+            }
+            if (equals(raw, i, pattern, 1)) {
+                return i;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    @Override
+    public int matchedLength() {
+        return pattern.length;
+    }
+
+    @Override
+    public int maxLength() {
+        return pattern.length;
+    }
+}
@@ -0,0 +1,26 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+class SingleByteMatcher extends ByteMatcher {
+
+    private final byte target;
+    private final Swar swar = new Swar();
+
+    SingleByteMatcher(byte target) {
+        this.target = target;
+    }
+
+    @Override
+    public int indexOf(byte[] raw, int from, int to) {
+        return swar.indexOf(raw, from, to, target);
+    }
+
+    @Override
+    public int matchedLength() {
+        return 1;
+    }
+
+    @Override
+    public int maxLength() {
+        return 1;
+    }
+}
@@ -0,0 +1,47 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 以 long 为单位一次比较 8 个字节的单字节查找 (SIMD Within A Register)
+ */
+class Swar {
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private byte[] viewArray;
+    private ByteBuffer view;
+
+    int indexOf(byte[] raw, int from, int to, byte target) {
+        int i = from;
+        if (to - from >= 16) {
+            ByteBuffer view = view(raw);
+            long pattern = (target & 0xFFL) * ONES;
+            for (;i + 8 <= to;i += 8) {
+                long x = view.getLong(i) ^ pattern;
+                // 匹配的字节异或后为 0，最低位的 0 字节不会被借位误判
+                long found = (x - ONES) & ~x & HIGHS;
+                if (found != 0) {
+                    return i + (Long.numberOfTrailingZeros(found) >>> 3);
+                }
+            }
+        }
+        for (;i<to;i++) {
+            if (raw[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private ByteBuffer view(byte[] raw) {
+        if (viewArray != raw) {
+            // 接收缓冲区的底层数组很少更换，缓存视图避免每次包装
+            view = ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN);
+            viewArray = raw;
+        }
+        return view;
+    }
+}
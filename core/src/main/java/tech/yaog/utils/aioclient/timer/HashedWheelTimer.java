@@ -0,0 +1,332 @@
+package tech.yaog.utils.aioclient.timer;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 哈希时间轮定时器
+ *
+ * 所有连接共用一个工作线程。线程只在最早的任务到期或有新任务加入时醒来，不按 tick 空转；
+ * 没有待触发的任务时阻塞等待，空闲一段时间后自动退出，有新任务时再重新启动。
+ * 任务在工作线程上执行，应尽量简短。
+ */
+public class HashedWheelTimer {
+
+    private static final long IDLE_EXIT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private static volatile HashedWheelTimer shared;
+
+    /**
+     * 进程内共享的定时器，精度 1ms
+     */
+    public static HashedWheelTimer shared() {
+        HashedWheelTimer timer = shared;
+        if (timer == null) {
+            synchronized (HashedWheelTimer.class) {
+                timer = shared;
+                if (timer == null) {
+                    timer = new HashedWheelTimer("AIOClientTimer", 1, TimeUnit.MILLISECONDS, 512);
+                    shared = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    private static volatile HashedWheelTimer coarse;
+
+    /**
+     * 进程内共享的低精度定时器，精度 100ms，用于空闲检测等周期长、不要求准时的任务，
+     * 同一 tick 内到期的任务一起处理，减少唤醒次数
+     */
+    public static HashedWheelTimer coarse() {
+        HashedWheelTimer timer = coarse;
+        if (timer == null) {
+            synchronized (HashedWheelTimer.class) {
+                timer = coarse;
+                if (timer == null) {
+                    timer = new HashedWheelTimer("AIOClientCoarseTimer", 100, TimeUnit.MILLISECONDS, 512);
+                    coarse = timer;
+                }
+            }
+        }
+        return timer;
+    }
+
+    private final String name;
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Object lock = new Object();
+
+    private Thread worker;
+    private long startTime;
+    private long tick;
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("ticksPerWheel must be positive: " + ticksPerWheel);
+        }
+        int size = 1;
+        while (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.name = name;
+        this.tickDuration = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0;i<size;i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 在 delay 之后执行 task
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new IllegalArgumentException("task is null");
+        }
+        Timeout timeout;
+        synchronized (lock) {
+            if (worker == null) {
+                startTime = System.nanoTime();
+                tick = 0;
+                worker = new Thread(new Worker(), name);
+                worker.setDaemon(true);
+                worker.start();
+            }
+            long deadline = System.nanoTime() + Math.max(unit.toNanos(delay), 0) - startTime;
+            timeout = new Timeout(this, task, deadline);
+            pending.incrementAndGet();
+            newTimeouts.add(timeout);
+            lock.notifyAll();
+        }
+        return timeout;
+    }
+
+    /**
+     * 当前未触发且未取消的任务数
+     */
+    public int pendingTimeouts() {
+        return pending.get();
+    }
+
+    private class Worker implements Runnable {
+        @Override
+        public void run() {
+            while (true) {
+                transferTimeouts();
+                long current = System.nanoTime() - startTime;
+                // 已经结束的 tick，tick k 在 (k + 1) * tickDuration 之后处理
+                long lastTick = current / tickDuration - 1;
+                if (lastTick >= tick) {
+                    // 睡眠期间跳过的 tick 按顺序逐个处理，每个 tick 只触发截止时间在该 tick 内的任务，
+                    // 落后超过一圈时同一个槽中后几圈的任务也不会提前触发。没有任务的 tick 直接跳到最早的截止时间
+                    long t = tick;
+                    while (t <= lastTick) {
+                        wheel[(int) (t & mask)].expire((t + 1) * tickDuration - 1);
+                        t = Math.max(t + 1, earliestDeadline() / tickDuration);
+                    }
+                    tick = lastTick + 1;
+                }
+                if (!awaitNextDeadline()) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 睡眠到最早的任务到期，或有新任务加入。
+         * 没有待触发的任务时阻塞等待，空闲超时后返回 false，线程退出
+         */
+        private boolean awaitNextDeadline() {
+            synchronized (lock) {
+                long idleSince = -1;
+                while (newTimeouts.isEmpty()) {
+                    long now = System.nanoTime();
+                    long wait;
+                    if (pending.get() == 0) {
+                        if (idleSince < 0) {
+                            idleSince = now;
+                        }
+                        long idle = now - idleSince;
+                        if (idle >= IDLE_EXIT_NANOS) {
+                            clearWheel();
+                            worker = null;
+                            return false;
+                        }
+                        wait = IDLE_EXIT_NANOS - idle;
+                    }
+                    else {
+                        idleSince = -1;
+                        long next = earliestDeadline();
+                        if (next == Long.MAX_VALUE) {
+                            // 剩余任务都还在 newTimeouts 中
+                            return true;
+                        }
+                        // 已过期的任务放在当前 tick 中，tick 结束后才处理
+                        long nextTick = Math.max(next / tickDuration, tick);
+                        wait = (nextTick + 1) * tickDuration - (now - startTime);
+                        if (wait <= 0) {
+                            return true;
+                        }
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(lock, wait);
+                    } catch (InterruptedException e) {
+                        worker = null;
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        private long earliestDeadline() {
+            long earliest = Long.MAX_VALUE;
+            for (Bucket bucket : wheel) {
+                if (bucket.earliest < earliest) {
+                    earliest = bucket.earliest;
+                }
+            }
+            return earliest;
+        }
+
+        /**
+         * 线程退出前丢弃轮上残留的已取消任务，重新启动后 startTime 会变化
+         */
+        private void clearWheel() {
+            for (Bucket bucket : wheel) {
+                bucket.head = null;
+                bucket.earliest = Long.MAX_VALUE;
+            }
+        }
+
+        private void transferTimeouts() {
+            Timeout timeout;
+            while ((timeout = newTimeouts.poll()) != null) {
+                if (timeout.isCancelled()) {
+                    continue;
+                }
+                long ticks = Math.max(timeout.deadline / tickDuration, tick);
+                wheel[(int) (ticks & mask)].add(timeout);
+            }
+        }
+    }
+
+    private static class Bucket {
+        private Timeout head;
+        /**
+         * 槽内最早的截止时间，用于计算睡眠时长。取消任务时不更新，最多多醒一次
+         */
+        private long earliest = Long.MAX_VALUE;
+
+        void add(Timeout timeout) {
+            timeout.next = head;
+            head = timeout;
+            if (timeout.deadline < earliest) {
+                earliest = timeout.deadline;
+            }
+        }
+
+        /**
+         * 触发截止时间不晚于 current 的任务，同一个槽中还有以后几圈的任务
+         */
+        void expire(long current) {
+            long remaining = Long.MAX_VALUE;
+            Timeout previous = null;
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                boolean remove;
+                if (timeout.isCancelled()) {
+                    remove = true;
+                }
+                else if (timeout.deadline <= current) {
+                    remove = true;
+                    timeout.expire();
+                }
+                else {
+                    remove = false;
+                    if (timeout.deadline < remaining) {
+                        remaining = timeout.deadline;
+                    }
+                }
+                if (remove) {
+                    if (previous == null) {
+                        head = next;
+                    }
+                    else {
+                        previous.next = next;
+                    }
+                    timeout.next = null;
+                }
+                else {
+                    previous = timeout;
+                }
+                timeout = next;
+            }
+            earliest = remaining;
+        }
+    }
+
+    public static class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * 取消任务
+         * @return 任务尚未触发且此次取消成功时返回 true
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                timer.pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.pending.decrementAndGet();
+            try {
+                task.run();
+            }
+            catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+}
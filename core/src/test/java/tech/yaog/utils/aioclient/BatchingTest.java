@@ -0,0 +1,189 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.encoder.StringEncoder;
+import tech.yaog.utils.aioclient.io.IO;
+
+import static org.junit.Assert.*;
+
+/**
+ * 发送线程合并写出及延迟发送
+ */
+public class BatchingTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * 记录每次写出的数据及时间
+     */
+    public static class RecordingIO extends IO {
+
+        static final List<byte[]> WRITES = new ArrayList<>();
+        static final List<Long> TIMES = new ArrayList<>();
+
+        public RecordingIO(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        public boolean connect(String remote) {
+            callback.onConnected();
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+            callback.onDisconnected();
+        }
+
+        @Override
+        public void beginRead() {
+        }
+
+        @Override
+        public void stopRead() {
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            synchronized (WRITES) {
+                WRITES.add(bytes);
+                TIMES.add(System.nanoTime());
+                WRITES.notifyAll();
+            }
+        }
+    }
+
+    private Bootstrap bootstrap;
+
+    @After
+    public void tearDown() {
+        if (bootstrap != null) {
+            bootstrap.disconnect();
+        }
+        synchronized (RecordingIO.WRITES) {
+            RecordingIO.WRITES.clear();
+            RecordingIO.TIMES.clear();
+        }
+    }
+
+    private Bootstrap connect(Bootstrap bootstrap) {
+        this.bootstrap = bootstrap.ioClass(RecordingIO.class).addEncoder(new StringEncoder(UTF8));
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        return bootstrap;
+    }
+
+    /**
+     * 等到累计写出 length 字节，返回写出的全部数据
+     */
+    private static byte[] awaitWritten(int length, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        synchronized (RecordingIO.WRITES) {
+            while (true) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                for (byte[] bytes : RecordingIO.WRITES) {
+                    out.write(bytes, 0, bytes.length);
+                }
+                long wait = deadline - System.nanoTime();
+                if (out.size() >= length || wait <= 0) {
+                    return out.toByteArray();
+                }
+                TimeUnit.NANOSECONDS.timedWait(RecordingIO.WRITES, wait);
+            }
+        }
+    }
+
+    private static int writes() {
+        synchronized (RecordingIO.WRITES) {
+            return RecordingIO.WRITES.size();
+        }
+    }
+
+    @Test
+    public void mergesSmallMessagesInOrder() throws Exception {
+        connect(new Bootstrap().flushDelay(50));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0;i<200;i++) {
+            String msg = "m" + i + ";";
+            expected.append(msg);
+            assertTrue(bootstrap.send(msg));
+        }
+        byte[] written = awaitWritten(expected.length(), 2000);
+        assertEquals(expected.toString(), new String(written, UTF8));
+        // 默认每批最多 64 条
+        assertTrue("writes " + writes(), writes() < 200);
+        assertTrue("writes " + writes(), writes() >= 4);
+    }
+
+    @Test
+    public void loneMessageSentAfterDelay() throws Exception {
+        connect(new Bootstrap().flushDelay(100));
+        long start = System.nanoTime();
+        assertTrue(bootstrap.send("alone"));
+        assertEquals("alone", new String(awaitWritten(5, 2000), UTF8));
+        long elapsed;
+        synchronized (RecordingIO.WRITES) {
+            elapsed = TimeUnit.NANOSECONDS.toMillis(RecordingIO.TIMES.get(0) - start);
+        }
+        // 等待合并，但不超过设定的延迟太多
+        assertTrue("sent after " + elapsed + "ms", elapsed >= 80);
+        assertTrue("sent after " + elapsed + "ms", elapsed < 1000);
+        assertEquals(1, writes());
+    }
+
+    @Test
+    public void fullBatchSentWithoutDelay() throws Exception {
+        connect(new Bootstrap().flushDelay(5000).sendBatch(10, 1 << 20));
+        long start = System.nanoTime();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0;i<10;i++) {
+            String msg = "m" + i + ";";
+            expected.append(msg);
+            assertTrue(bootstrap.send(msg));
+        }
+        byte[] written = awaitWritten(expected.length(), 2000);
+        assertEquals(expected.toString(), new String(written, UTF8));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    public void splitsBatchByBytes() throws Exception {
+        connect(new Bootstrap().flushDelay(50).sendBatch(100, 32));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0;i<50;i++) {
+            // 每条 10 字节
+            String msg = String.format("msg%06d;", i);
+            expected.append(msg);
+            assertTrue(bootstrap.send(msg));
+        }
+        byte[] written = awaitWritten(expected.length(), 2000);
+        assertEquals(expected.toString(), new String(written, UTF8));
+        synchronized (RecordingIO.WRITES) {
+            for (byte[] bytes : RecordingIO.WRITES) {
+                // 超过 32 字节时写出，一次最多多出一条
+                assertTrue("write of " + bytes.length, bytes.length <= 40);
+            }
+        }
+    }
+
+    @Test
+    public void noDelaySendsImmediately() throws Exception {
+        connect(new Bootstrap());
+        long start = System.nanoTime();
+        assertTrue(bootstrap.send("now"));
+        assertEquals("now", new String(awaitWritten(3, 2000), UTF8));
+        long elapsed;
+        synchronized (RecordingIO.WRITES) {
+            elapsed = TimeUnit.NANOSECONDS.toMillis(RecordingIO.TIMES.get(0) - start);
+        }
+        assertTrue("sent after " + elapsed + "ms", elapsed < 500);
+    }
+}
@@ -0,0 +1,152 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+import tech.yaog.utils.aioclient.splitter.LengthFieldSplitter;
+
+import static org.junit.Assert.*;
+
+public class CompressionTest {
+
+    private static byte[] body(int length, int seed) {
+        byte[] body = new byte[length];
+        for (int i = 0;i<length;i++) {
+            body[i] = (byte) ('a' + (i + seed) % 7);
+        }
+        return body;
+    }
+
+    /**
+     * 按 [4字节长度][标志字节][消息体] 压缩后去掉长度字段再解压
+     */
+    private static byte[] roundTrip(Compression compression, byte[] body) throws Exception {
+        OutputBuffer out = new OutputBuffer(64);
+        out.ensureWritable(compression.headerLength());
+        out.advance(compression.headerLength());
+        out.write(body);
+        assertTrue(compression.compress(out, 0));
+        byte[] frame = out.toByteArray();
+        int length = (frame[0] & 0xFF) << 24 | (frame[1] & 0xFF) << 16 | (frame[2] & 0xFF) << 8 | frame[3] & 0xFF;
+        assertEquals(frame.length - 4, length);
+        if (!compression.isDeflated(frame, 4)) {
+            return Arrays.copyOfRange(frame, 5, frame.length);
+        }
+        return compression.inflate(frame, 4, length);
+    }
+
+    @Test
+    public void deflatesAboveThreshold() throws Exception {
+        Compression compression = new Compression(64);
+        byte[] body = body(1000, 0);
+        OutputBuffer out = new OutputBuffer(64);
+        out.ensureWritable(compression.headerLength());
+        out.advance(compression.headerLength());
+        out.write(body);
+        assertTrue(compression.compress(out, 0));
+        assertTrue(compression.isDeflated(out.array(), 4));
+        assertTrue(out.size() < body.length);
+        assertArrayEquals(body, roundTrip(compression, body));
+    }
+
+    @Test
+    public void keepsShortBodyAsIs() throws Exception {
+        Compression compression = new Compression(64);
+        byte[] body = body(10, 0);
+        OutputBuffer out = new OutputBuffer(64);
+        out.ensureWritable(compression.headerLength());
+        out.advance(compression.headerLength());
+        out.write(body);
+        assertTrue(compression.compress(out, 0));
+        assertFalse(compression.isDeflated(out.array(), 4));
+        assertArrayEquals(body, roundTrip(compression, body));
+    }
+
+    @Test
+    public void acceptsMatchingSplitter() {
+        new Bootstrap()
+                .compression(new Compression(64))
+                .splitter(new LengthFieldSplitter(1024, 0, 4, 0, 4));
+        new Bootstrap()
+                .splitter(new LengthFieldSplitter(1024, 0, 2, 0, 2))
+                .compression(new Compression(64).lengthField(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSplitterThatKeepsLengthField() {
+        new Bootstrap()
+                .compression(new Compression(64))
+                .splitter(new LengthFieldSplitter(1024, 0, 4, 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsLittleEndianSplitter() {
+        new Bootstrap()
+                .splitter(new LengthFieldSplitter(ByteOrder.LITTLE_ENDIAN, 1024, 0, 4, 0, 4))
+                .compression(new Compression(64));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDelimiterSplitter() {
+        new Bootstrap()
+                .compression(new Compression(64))
+                .splitter(new DelimiterSplitter("\n".getBytes()));
+    }
+
+    @Test
+    public void failsToConnectWithDefaultSplitter() {
+        final AtomicInteger exceptions = new AtomicInteger();
+        Bootstrap bootstrap = new Bootstrap()
+                .compression(new Compression(64))
+                .exceptionHandler(new Bootstrap.ExceptionHandler() {
+                    @Override
+                    public void onExceptionTriggered(Throwable t) {
+                        if (t instanceof IllegalArgumentException) {
+                            exceptions.incrementAndGet();
+                        }
+                    }
+                });
+        assertFalse(bootstrap.connect("127.0.0.1:1"));
+        assertEquals(1, exceptions.get());
+    }
+
+    @Test
+    public void sharedAcrossManyThreads() throws Exception {
+        final Compression compression = new Compression(0).dictionary("abcdefg".getBytes("UTF-8"));
+        final int threads = 32;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicInteger failures = new AtomicInteger();
+        for (int t = 0;t<threads;t++) {
+            final int seed = t;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0;i<200;i++) {
+                            byte[] body = body(100 + i * 10, seed + i);
+                            if (!Arrays.equals(body, roundTrip(compression, body))) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.incrementAndGet();
+                    }
+                    finally {
+                        done.countDown();
+                    }
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        assertEquals(0, failures.get());
+    }
+}
@@ -0,0 +1,120 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.yaog.utils.aioclient.io.NIO;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+
+import static org.junit.Assert.*;
+
+/**
+ * 解码出错时只丢弃出错的帧，后续帧照常处理
+ */
+public class DecodeFailureTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Socket socket = server.accept();
+                    synchronized (accepted) {
+                        accepted.add(socket);
+                    }
+                    OutputStream out = socket.getOutputStream();
+                    for (String chunk : new String[] {"a\nbad\nc\n", "d\n", "e\n"}) {
+                        Thread.sleep(100);
+                        out.write(chunk.getBytes(UTF8));
+                        out.flush();
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // 测试结束，server 已关闭
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        synchronized (accepted) {
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void failingDecoderDropsOnlyItsFrame() throws Exception {
+        final List<String> received = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(4);
+        final AtomicInteger exceptions = new AtomicInteger();
+        Bootstrap bootstrap = new Bootstrap()
+                .ioClass(NIO.class)
+                .splitter(new DelimiterSplitter("\n".getBytes(UTF8)))
+                .dispatchMode(Bootstrap.DispatchMode.INLINE)
+                .addDecoder(new AbstractDecoder<String>() {
+                    @Override
+                    public String decode(byte[] byteBuffer) {
+                        String text = new String(byteBuffer, UTF8);
+                        if (text.equals("bad")) {
+                            throw new IllegalStateException("bad frame");
+                        }
+                        return text;
+                    }
+                })
+                .addHandler(new AbstractHandler<String>() {
+                    @Override
+                    public boolean handle(String msg) {
+                        synchronized (received) {
+                            received.add(msg);
+                        }
+                        done.countDown();
+                        return true;
+                    }
+                })
+                .exceptionHandler(new Bootstrap.ExceptionHandler() {
+                    @Override
+                    public void onExceptionTriggered(Throwable t) {
+                        if (t instanceof IllegalStateException) {
+                            exceptions.incrementAndGet();
+                        }
+                    }
+                });
+        try {
+            assertTrue(bootstrap.connect("127.0.0.1:" + server.getLocalPort()));
+            assertTrue("received " + received, done.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            synchronized (received) {
+                assertEquals(Arrays.asList("a", "c", "d", "e"), received);
+            }
+            assertEquals(1, exceptions.get());
+        }
+        finally {
+            bootstrap.disconnect();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DecoderRouterTest {
+
+    private static class NamedDecoder extends AbstractDecoder<String> {
+        private final String name;
+
+        NamedDecoder(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String decode(byte[] byteBuffer) {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Test
+    public void routesByType() {
+        NamedDecoder login = new NamedDecoder("login");
+        NamedDecoder heartbeat = new NamedDecoder("heartbeat");
+        DecoderRouter router = new DecoderRouter(DecoderRouter.byteAt(0))
+                .route(0x01, login)
+                .route(0x02, heartbeat);
+        assertSame(login, router.select(new byte[] {0x01, 9, 9}, 0, 3));
+        assertSame(heartbeat, router.select(new byte[] {0x02}, 0, 1));
+        // 帧位于数组中间
+        assertSame(heartbeat, router.select(new byte[] {0x01, 0x01, 0x02, 0x01}, 2, 2));
+        // 无符号读取
+        NamedDecoder high = new NamedDecoder("high");
+        router.route(0xFF, high);
+        assertSame(high, router.select(new byte[] {(byte) 0xFF}, 0, 1));
+    }
+
+    @Test
+    public void unknownTypeUsesFallback() {
+        NamedDecoder login = new NamedDecoder("login");
+        DecoderRouter router = new DecoderRouter(DecoderRouter.byteAt(0)).route(0x01, login);
+        assertNull(router.select(new byte[] {0x03}, 0, 1));
+        NamedDecoder raw = new NamedDecoder("raw");
+        router.fallback(raw);
+        assertSame(raw, router.select(new byte[] {0x03}, 0, 1));
+        assertSame(login, router.select(new byte[] {0x01}, 0, 1));
+    }
+
+    @Test
+    public void overwritesExistingRoute() {
+        NamedDecoder first = new NamedDecoder("first");
+        NamedDecoder second = new NamedDecoder("second");
+        DecoderRouter router = new DecoderRouter(DecoderRouter.byteAt(0))
+                .route(0x01, first)
+                .route(0x01, second);
+        assertSame(second, router.select(new byte[] {0x01}, 0, 1));
+    }
+
+    @Test
+    public void shortFrameUsesFallback() {
+        NamedDecoder zero = new NamedDecoder("zero");
+        NamedDecoder raw = new NamedDecoder("raw");
+        DecoderRouter bytes = new DecoderRouter(DecoderRouter.byteAt(2))
+                .route(0, zero)
+                .fallback(raw);
+        // 数组够长但帧只有两个字节，不能读到帧外
+        assertSame(raw, bytes.select(new byte[] {0, 0, 0}, 0, 2));
+        assertSame(raw, bytes.select(new byte[0], 0, 0));
+        assertSame(zero, bytes.select(new byte[] {0, 0, 0}, 0, 3));
+
+        DecoderRouter shorts = new DecoderRouter(DecoderRouter.shortAt(1))
+                .route(0, zero)
+                .fallback(raw);
+        assertSame(raw, shorts.select(new byte[] {0, 0, 0}, 0, 2));
+        assertSame(raw, shorts.select(new byte[] {0, 0, 0, 0}, 1, 2));
+        assertSame(zero, shorts.select(new byte[] {0, 0, 0}, 0, 3));
+    }
+
+    @Test
+    public void readsShortBigEndian() {
+        NamedDecoder decoder = new NamedDecoder("0x1234");
+        DecoderRouter router = new DecoderRouter(DecoderRouter.shortAt(1)).route(0x1234, decoder);
+        assertSame(decoder, router.select(new byte[] {0x00, 0x12, 0x34}, 0, 3));
+        assertNull(router.select(new byte[] {0x00, 0x34, 0x12}, 0, 3));
+        NamedDecoder high = new NamedDecoder("0xFFFF");
+        router.route(0xFFFF, high);
+        assertSame(high, router.select(new byte[] {0x00, (byte) 0xFF, (byte) 0xFF}, 0, 3));
+    }
+
+    @Test
+    public void growsWithManyRoutes() {
+        DecoderRouter router = new DecoderRouter(DecoderRouter.shortAt(0));
+        NamedDecoder[] decoders = new NamedDecoder[1000];
+        for (int i = 0;i<decoders.length;i++) {
+            // 间隔取值，让哈希冲突和线性探测都能覆盖到
+            decoders[i] = new NamedDecoder("type" + i * 37);
+            router.route(i * 37, decoders[i]);
+        }
+        for (int i = 0;i<decoders.length;i++) {
+            int type = i * 37;
+            assertSame(decoders[i], router.select(new byte[] {(byte) (type >>> 8), (byte) type}, 0, 2));
+        }
+        assertNull(router.select(new byte[] {0, 1}, 0, 2));
+        // 扩容后覆盖
+        NamedDecoder replaced = new NamedDecoder("replaced");
+        router.route(37, replaced);
+        assertSame(replaced, router.select(new byte[] {0, 37}, 0, 2));
+        assertSame(decoders[2], router.select(new byte[] {0, 74}, 0, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullDecoder() {
+        new DecoderRouter(DecoderRouter.byteAt(0)).route(1, null);
+    }
+}
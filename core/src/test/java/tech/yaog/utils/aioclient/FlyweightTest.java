@@ -0,0 +1,228 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.encoder.StringEncoder;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+
+import static org.junit.Assert.*;
+
+/**
+ * 享元消息及按偏移解码
+ */
+public class FlyweightTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * [类型 1 字节][序号 2 字节][编号 8 字节][名称]
+     */
+    public static class Order extends AbstractFlyweight {
+        public int getType() {
+            return getByte(0);
+        }
+
+        public int getSeq() {
+            return getShort(1);
+        }
+
+        public long getOrderId() {
+            return getLong(3);
+        }
+
+        public String getName() {
+            return getString(11, length() - 11, UTF8);
+        }
+
+        public int byteAt(int index) {
+            return getByte(index);
+        }
+    }
+
+    private static final FlyweightDecoder<Order> DECODER = new FlyweightDecoder<Order>() {
+        @Override
+        protected Order create() {
+            return new Order();
+        }
+    };
+
+    private static byte[] order(int type, int seq, long id, String name) {
+        byte[] text = name.getBytes(UTF8);
+        byte[] frame = new byte[11 + text.length];
+        frame[0] = (byte) type;
+        frame[1] = (byte) (seq >>> 8);
+        frame[2] = (byte) seq;
+        for (int i = 0;i<8;i++) {
+            frame[3 + i] = (byte) (id >>> (56 - i * 8));
+        }
+        System.arraycopy(text, 0, frame, 11, text.length);
+        return frame;
+    }
+
+    /**
+     * 把 frame 放在一个更大的数组中间，前后填充其他数据
+     */
+    private static byte[] embed(byte[] frame, int before, int after) {
+        byte[] array = new byte[before + frame.length + after];
+        Arrays.fill(array, (byte) 0x7E);
+        System.arraycopy(frame, 0, array, before, frame.length);
+        return array;
+    }
+
+    private static byte[] backingArray(AbstractFlyweight flyweight) throws Exception {
+        Field field = AbstractFlyweight.class.getDeclaredField("array");
+        field.setAccessible(true);
+        return (byte[]) field.get(flyweight);
+    }
+
+    @Test
+    public void readsFrameAtOffset() {
+        byte[] frame = order(0xA5, 0xBEEF, 0x0102030405060708L, "订单");
+        byte[] array = embed(frame, 37, 100);
+        Order msg = DECODER.decode(array, 37, frame.length);
+        assertEquals(0xA5, msg.getType());
+        assertEquals(0xBEEF, msg.getSeq());
+        assertEquals(0x0102030405060708L, msg.getOrderId());
+        assertEquals("订单", msg.getName());
+        assertEquals(frame.length, msg.length());
+        assertArrayEquals(frame, msg.toByteArray());
+        assertFalse(msg.isDetached());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void cannotReadPastFrame() {
+        byte[] frame = order(1, 2, 3, "x");
+        Order msg = DECODER.decode(embed(frame, 5, 5), 5, frame.length);
+        // 数组中紧跟帧的位置有数据，但不属于这一帧
+        msg.byteAt(frame.length);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void cannotReadBeforeFrame() {
+        byte[] frame = order(1, 2, 3, "x");
+        Order msg = DECODER.decode(embed(frame, 5, 5), 5, frame.length);
+        msg.byteAt(-1);
+    }
+
+    @Test
+    public void detachCopiesOnlyTheFrame() throws Exception {
+        byte[] frame = order(7, 8, 9, "name");
+        byte[] array = embed(frame, 1000, 1000);
+        Order msg = DECODER.decode(array, 1000, frame.length);
+        // 分离前直接引用接收缓冲区
+        assertSame(array, backingArray(msg));
+        msg.detach();
+        assertTrue(msg.isDetached());
+        assertEquals(frame.length, backingArray(msg).length);
+        // 缓冲区被复用后不受影响
+        Arrays.fill(array, (byte) 0);
+        assertEquals(7, msg.getType());
+        assertEquals(8, msg.getSeq());
+        assertEquals(9, msg.getOrderId());
+        assertEquals("name", msg.getName());
+        assertArrayEquals(frame, msg.toByteArray());
+        byte[] detached = backingArray(msg);
+        msg.detach();
+        assertSame(detached, backingArray(msg));
+    }
+
+    @Test
+    public void ownedFrameNeedsNoDetach() throws Exception {
+        byte[] frame = order(1, 2, 3, "x");
+        Order msg = DECODER.decode(frame);
+        assertTrue(msg.isDetached());
+        msg.detach();
+        assertSame(frame, backingArray(msg));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unwrappedThrows() {
+        new Order().getType();
+    }
+
+    @Test
+    public void defaultOffsetDecodeCopiesExactFrame() {
+        final List<byte[]> seen = new ArrayList<>();
+        AbstractDecoder<String> decoder = new AbstractDecoder<String>() {
+            @Override
+            public String decode(byte[] byteBuffer) {
+                seen.add(byteBuffer);
+                return new String(byteBuffer, UTF8);
+            }
+        };
+        byte[] array = embed("frame".getBytes(UTF8), 3, 4);
+        assertEquals("frame", decoder.decode(array, 3, 5));
+        assertEquals(5, seen.get(0).length);
+        assertNotSame(array, seen.get(0));
+        assertEquals("", decoder.decode(array, 3, 0));
+    }
+
+    @Test
+    public void stringDecoderAtOffset() {
+        byte[] array = embed("中文".getBytes(UTF8), 2, 2);
+        assertEquals("中文", new StringDecoder(UTF8).decode(array, 2, 6));
+    }
+
+    @Test
+    public void bootstrapDetachesBeforeHandingOff() throws Exception {
+        assertHandedOff(Bootstrap.DispatchMode.UNORDERED, true);
+        assertHandedOff(Bootstrap.DispatchMode.SERIAL, true);
+        // 在 io 线程上处理时不拷贝
+        assertHandedOff(Bootstrap.DispatchMode.INLINE, false);
+    }
+
+    private void assertHandedOff(Bootstrap.DispatchMode mode, final boolean detached) throws Exception {
+        final List<Order> received = new ArrayList<>();
+        final List<Boolean> states = new ArrayList<>();
+        final CountDownLatch done = new CountDownLatch(2);
+        Bootstrap bootstrap = new Bootstrap()
+                .ioClass(RequestTest.LoopbackIO.class)
+                .splitter(new DelimiterSplitter("\n".getBytes(UTF8)))
+                .addEncoder(new StringEncoder(UTF8))
+                .addDecoder(DECODER)
+                .dispatchMode(mode)
+                .addHandler(new AbstractHandler<Order>() {
+                    @Override
+                    public boolean handle(Order msg) {
+                        synchronized (received) {
+                            states.add(msg.isDetached());
+                            msg.detach();
+                            received.add(msg);
+                        }
+                        done.countDown();
+                        return true;
+                    }
+                });
+        try {
+            assertTrue(bootstrap.connect("127.0.0.1:1"));
+            assertTrue(bootstrap.send(new String(order('A', 1, 1, "first"), UTF8) + "\n"
+                    + new String(order('B', 2, 2, "second"), UTF8) + "\n"));
+            assertTrue(done.await(2, TimeUnit.SECONDS));
+            synchronized (received) {
+                assertEquals(Arrays.asList(detached, detached), states);
+                for (Order msg : received) {
+                    // 只保留本帧数据，不带上相邻的帧或分隔符
+                    assertEquals(msg.length(), backingArray(msg).length);
+                }
+                List<String> names = new ArrayList<>();
+                for (Order msg : received) {
+                    names.add(msg.getName());
+                }
+                Collections.sort(names);
+                assertEquals(Arrays.asList("first", "second"), names);
+            }
+        }
+        finally {
+            bootstrap.disconnect();
+        }
+    }
+}
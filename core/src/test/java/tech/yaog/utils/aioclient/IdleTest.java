@@ -0,0 +1,188 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.encoder.StringEncoder;
+import tech.yaog.utils.aioclient.io.IO;
+
+import static org.junit.Assert.*;
+
+/**
+ * 持续写出时不应触发写空闲和心跳，即使 io 不回调 onWritten
+ */
+public class IdleTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    private static final byte[] HEARTBEAT = "ping".getBytes(UTF8);
+
+    /**
+     * 只实现 write(byte[]) 且不回调 onWritten 的 io，写出的数据记录在 WRITES 中
+     */
+    public static class SilentIO extends IO {
+
+        static final List<byte[]> WRITES = new ArrayList<>();
+
+        public SilentIO(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        public boolean connect(String remote) {
+            callback.onConnected();
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+            callback.onDisconnected();
+        }
+
+        @Override
+        public void beginRead() {
+        }
+
+        @Override
+        public void stopRead() {
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            synchronized (WRITES) {
+                WRITES.add(bytes);
+            }
+        }
+    }
+
+    private static class IdleCounter implements Bootstrap.Event {
+        final List<Bootstrap.IdleState> states = new ArrayList<>();
+        volatile CountDownLatch latch = new CountDownLatch(1);
+
+        @Override
+        public void onConnected() {
+        }
+
+        @Override
+        public void onDisconnected() {
+        }
+
+        @Override
+        public void onSent() {
+        }
+
+        @Override
+        public void onReceived() {
+        }
+
+        @Override
+        public void onIdle(Bootstrap.IdleState state) {
+            synchronized (states) {
+                states.add(state);
+            }
+            latch.countDown();
+        }
+
+        int count(Bootstrap.IdleState state) {
+            int count = 0;
+            synchronized (states) {
+                for (Bootstrap.IdleState s : states) {
+                    if (s == state) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
+    private Bootstrap bootstrap;
+
+    @After
+    public void tearDown() {
+        if (bootstrap != null) {
+            bootstrap.disconnect();
+        }
+        synchronized (SilentIO.WRITES) {
+            SilentIO.WRITES.clear();
+        }
+    }
+
+    private static int heartbeats() {
+        int count = 0;
+        synchronized (SilentIO.WRITES) {
+            for (byte[] bytes : SilentIO.WRITES) {
+                if (Arrays.equals(HEARTBEAT, bytes)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 每 50ms 发送一条，持续 duration 毫秒
+     */
+    private void keepSending(long duration) throws InterruptedException {
+        long end = System.currentTimeMillis() + duration;
+        int i = 0;
+        while (System.currentTimeMillis() < end) {
+            assertTrue(bootstrap.send("msg" + i++));
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void writerIdleOnlyAfterWritesStop() throws Exception {
+        IdleCounter counter = new IdleCounter();
+        bootstrap = new Bootstrap()
+                .ioClass(SilentIO.class)
+                .addEncoder(new StringEncoder(UTF8))
+                .idleTimeout(0, 300, 0)
+                .onEvent(counter);
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        keepSending(1200);
+        assertEquals(0, counter.count(Bootstrap.IdleState.WRITER_IDLE));
+        assertTrue("writer idle not fired", counter.latch.await(2, TimeUnit.SECONDS));
+        assertEquals(1, counter.count(Bootstrap.IdleState.WRITER_IDLE));
+    }
+
+    @Test
+    public void heartbeatOnlyWhenNothingWritten() throws Exception {
+        IdleCounter counter = new IdleCounter();
+        bootstrap = new Bootstrap()
+                .ioClass(SilentIO.class)
+                .addEncoder(new StringEncoder(UTF8))
+                .idleTimeout(0, 300, 0)
+                .heartbeat(HEARTBEAT)
+                .onEvent(counter);
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        keepSending(1200);
+        assertEquals(0, heartbeats());
+        assertTrue("writer idle not fired", counter.latch.await(2, TimeUnit.SECONDS));
+        // 心跳本身也算写出，下一次心跳要再等一个写空闲周期
+        Thread.sleep(200);
+        assertEquals(1, heartbeats());
+    }
+
+    @Test
+    public void allIdleCountsWrites() throws Exception {
+        IdleCounter counter = new IdleCounter();
+        bootstrap = new Bootstrap()
+                .ioClass(SilentIO.class)
+                .addEncoder(new StringEncoder(UTF8))
+                .idleTimeout(300, 0, 300)
+                .onEvent(counter);
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        keepSending(1200);
+        // 没有读到数据，只会报读空闲
+        assertTrue(counter.count(Bootstrap.IdleState.READER_IDLE) > 0);
+        assertEquals(0, counter.count(Bootstrap.IdleState.ALL_IDLE));
+    }
+}
@@ -0,0 +1,60 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+
+import static org.junit.Assert.*;
+
+public class OutboundBudgetTest {
+
+    static class Msg {
+    }
+
+    static class MsgEncoder extends AbstractBufferEncoder<Msg> {
+        @Override
+        public int sizeHint(Msg msg) {
+            return 100;
+        }
+
+        @Override
+        public boolean encode(Msg msg, OutputBuffer out) {
+            out.write(new byte[100]);
+            return true;
+        }
+    }
+
+    @Test
+    public void estimatesCustomMessagesByEncoderHint() {
+        Bootstrap bootstrap = new Bootstrap()
+                .addEncoder(new MsgEncoder())
+                .outboundBudget(1000, 250);
+        assertTrue(bootstrap.send(new Msg()));
+        assertTrue(bootstrap.send(new Msg()));
+        assertFalse(bootstrap.send(new Msg()));
+        assertEquals(200, bootstrap.pendingBytes());
+    }
+
+    @Test
+    public void blockDoesNotWaitWhileDisconnected() throws Exception {
+        final Bootstrap bootstrap = new Bootstrap()
+                .outboundBudget(1, Long.MAX_VALUE)
+                .overflowPolicy(Bootstrap.OverflowPolicy.BLOCK);
+        assertTrue(bootstrap.send("first"));
+        final AtomicReference<Boolean> result = new AtomicReference<>();
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result.set(bootstrap.send("second"));
+            }
+        });
+        sender.setDaemon(true);
+        sender.start();
+        sender.join(2000);
+        assertFalse("send blocked", sender.isAlive());
+        assertEquals(Boolean.FALSE, result.get());
+        assertEquals(1, bootstrap.pendingMessages());
+    }
+}
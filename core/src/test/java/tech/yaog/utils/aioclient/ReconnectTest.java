@@ -0,0 +1,135 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import tech.yaog.utils.aioclient.io.AIO;
+import tech.yaog.utils.aioclient.io.BIO;
+import tech.yaog.utils.aioclient.io.IO;
+import tech.yaog.utils.aioclient.io.NIO;
+import tech.yaog.utils.aioclient.io.VirtualThreadIO;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对端重置连接后应通知断开并自动重连
+ */
+public class ReconnectTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        Socket socket = server.accept();
+                        boolean first;
+                        synchronized (accepted) {
+                            first = accepted.isEmpty();
+                            accepted.add(socket);
+                        }
+                        if (first) {
+                            // 等客户端完成连接后，第一条连接直接发送 RST
+                            Thread.sleep(200);
+                            socket.setSoLinger(true, 0);
+                            socket.close();
+                        }
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // 测试结束，server 已关闭
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+        synchronized (accepted) {
+            for (Socket socket : accepted) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void bioReconnectsAfterReset() throws Exception {
+        assertReconnects(BIO.class);
+    }
+
+    @Test
+    public void virtualThreadIoReconnectsAfterReset() throws Exception {
+        assertReconnects(VirtualThreadIO.class);
+    }
+
+    @Test
+    public void nioReconnectsAfterReset() throws Exception {
+        assertReconnects(NIO.class);
+    }
+
+    @Test
+    public void aioReconnectsAfterReset() throws Exception {
+        assertReconnects(AIO.class);
+    }
+
+    private void assertReconnects(Class<? extends IO> ioClass) throws Exception {
+        final AtomicInteger disconnects = new AtomicInteger();
+        final AtomicInteger exceptions = new AtomicInteger();
+        final CountDownLatch reconnected = new CountDownLatch(2);
+        Bootstrap bootstrap = new Bootstrap()
+                .ioClass(ioClass)
+                .autoReconnect(50, 200, 0)
+                .exceptionHandler(new Bootstrap.ExceptionHandler() {
+                    @Override
+                    public void onExceptionTriggered(Throwable t) {
+                        exceptions.incrementAndGet();
+                    }
+                })
+                .onEvent(new Bootstrap.Event() {
+                    @Override
+                    public void onConnected() {
+                        reconnected.countDown();
+                    }
+
+                    @Override
+                    public void onDisconnected() {
+                        disconnects.incrementAndGet();
+                    }
+
+                    @Override
+                    public void onSent() {
+                    }
+
+                    @Override
+                    public void onReceived() {
+                    }
+                });
+        try {
+            assertTrue(bootstrap.connect("127.0.0.1:" + server.getLocalPort()));
+            assertTrue("not reconnected", reconnected.await(5, TimeUnit.SECONDS));
+            assertTrue("connected, disconnects " + disconnects.get(), bootstrap.isConnected());
+            assertEquals(1, disconnects.get());
+            assertTrue("exceptions " + exceptions.get(), exceptions.get() < 10);
+        }
+        finally {
+            bootstrap.disconnect();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import tech.yaog.utils.aioclient.encoder.StringEncoder;
+import tech.yaog.utils.aioclient.io.IO;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+
+import static org.junit.Assert.*;
+
+/**
+ * 请求/应答：消息格式为 "id:内容\n"，以 id 匹配应答
+ */
+public class RequestTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * 把写出的数据原样作为收到的数据回送，ECHO 为 false 时只吞掉
+     */
+    public static class LoopbackIO extends IO {
+
+        static volatile boolean ECHO = true;
+
+        public LoopbackIO(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        public boolean connect(String remote) {
+            callback.onConnected();
+            return true;
+        }
+
+        @Override
+        public void disconnect() {
+            callback.onDisconnected();
+        }
+
+        @Override
+        public void beginRead() {
+        }
+
+        @Override
+        public void stopRead() {
+        }
+
+        @Override
+        public void write(byte[] bytes) {
+            if (ECHO) {
+                callback.onReceived(bytes);
+            }
+        }
+    }
+
+    private static final Bootstrap.CorrelationExtractor ID = new Bootstrap.CorrelationExtractor() {
+        @Override
+        public Object correlationId(Object msg) {
+            String text = (String) msg;
+            int colon = text.indexOf(':');
+            return colon < 0 ? null : text.substring(0, colon);
+        }
+    };
+
+    private Bootstrap bootstrap;
+
+    @After
+    public void tearDown() {
+        if (bootstrap != null) {
+            bootstrap.disconnect();
+        }
+        LoopbackIO.ECHO = true;
+    }
+
+    private Bootstrap newBootstrap() {
+        return new Bootstrap()
+                .ioClass(LoopbackIO.class)
+                .splitter(new DelimiterSplitter("\n".getBytes(UTF8)))
+                .addEncoder(new StringEncoder(UTF8))
+                .addDecoder(new StringDecoder(UTF8))
+                .correlation(ID, ID);
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) throws InterruptedException {
+        try {
+            future.get(2, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            fail("future not completed");
+        }
+        fail("future completed normally");
+        return null;
+    }
+
+    @Test
+    public void completesWithReply() throws Exception {
+        final AtomicReference<String> handled = new AtomicReference<>();
+        bootstrap = newBootstrap().addHandler(new AbstractHandler<String>() {
+            @Override
+            public boolean handle(String msg) {
+                handled.set(msg);
+                return true;
+            }
+        });
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        CompletableFuture<String> reply = bootstrap.request("1:hello\n", 2000);
+        assertEquals("1:hello", reply.get(2, TimeUnit.SECONDS));
+        // 同一个 id 完成后可以再次使用
+        CompletableFuture<String> again = bootstrap.request("1:again\n", 2000);
+        assertEquals("1:again", again.get(2, TimeUnit.SECONDS));
+        // 应答不交给处理器
+        Thread.sleep(100);
+        assertNull(handled.get());
+    }
+
+    @Test
+    public void timesOutOffTimerThread() throws Exception {
+        LoopbackIO.ECHO = false;
+        bootstrap = newBootstrap();
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        CompletableFuture<String> reply = bootstrap.request("1:hello\n", 100);
+        final AtomicReference<String> thread = new AtomicReference<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        reply.whenComplete(new BiConsumer<String, Throwable>() {
+            @Override
+            public void accept(String s, Throwable t) {
+                thread.set(Thread.currentThread().getName());
+                completed.countDown();
+            }
+        });
+        assertTrue(failure(reply) instanceof TimeoutException);
+        assertTrue(completed.await(2, TimeUnit.SECONDS));
+        assertNotEquals("AIOClientTimer", thread.get());
+        // 超时后不再占用该 id
+        LoopbackIO.ECHO = true;
+        assertEquals("1:late", bootstrap.<String>request("1:late\n", 2000).get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void rejectsDuplicateId() throws Exception {
+        LoopbackIO.ECHO = false;
+        bootstrap = newBootstrap();
+        assertTrue(bootstrap.connect("127.0.0.1:1"));
+        CompletableFuture<String> first = bootstrap.request("1:first\n", 5000);
+        CompletableFuture<String> second = bootstrap.request("1:second\n", 5000);
+        assertTrue(failure(second) instanceof IllegalStateException);
+        assertFalse(first.isDone());
+        first.cancel(false);
+        // 取消后同样从等待表中移除
+        CompletableFuture<String> third = bootstrap.request("1:third\n", 100);
+        assertTrue(failure(third) instanceof TimeoutException);
+    }
+
+    @Test
+    public void rejectedSendLeavesNoPendingRequest() throws Exception {
+        // 未连接时消息留在队列中，第二条超出预算
+        bootstrap = newBootstrap()
+                .outboundBudget(1, Long.MAX_VALUE)
+                .overflowPolicy(Bootstrap.OverflowPolicy.REJECT);
+        assertTrue(bootstrap.send("0:fill\n"));
+        Throwable first = failure(bootstrap.request("2:hello\n", 5000));
+        assertTrue(first instanceof IllegalStateException);
+        assertTrue(first.getMessage().contains("queue full"));
+        // 同一个 id 再次请求仍然因为队列满失败，而不是 id 重复
+        Throwable second = failure(bootstrap.request("2:hello\n", 5000));
+        assertTrue(second.getMessage().contains("queue full"));
+    }
+
+    @Test
+    public void requiresCorrelation() throws Exception {
+        Bootstrap plain = new Bootstrap();
+        assertTrue(failure(plain.request("1:hello\n", 100)) instanceof IllegalStateException);
+        bootstrap = newBootstrap();
+        assertTrue(failure(bootstrap.request("no id\n", 100)) instanceof IllegalArgumentException);
+    }
+}
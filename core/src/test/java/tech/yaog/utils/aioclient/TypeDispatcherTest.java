@@ -0,0 +1,75 @@
+package tech.yaog.utils.aioclient;
+
+import org.junit.Test;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TypeDispatcherTest {
+
+    static class Base {
+    }
+
+    static class Middle extends Base implements Serializable {
+    }
+
+    static class Leaf extends Middle {
+    }
+
+    @Test
+    public void mostSpecificFirst() {
+        TypeDispatcher<String> dispatcher = new TypeDispatcher<>();
+        dispatcher.put(Object.class, "object");
+        dispatcher.put(Base.class, "base");
+        dispatcher.put(Leaf.class, "leaf");
+        dispatcher.put(Middle.class, "middle");
+        assertEquals(Arrays.asList("leaf", "middle", "base", "object"), dispatcher.lookup(Leaf.class));
+        assertEquals(Arrays.asList("middle", "base", "object"), dispatcher.lookup(Middle.class));
+        assertEquals(Arrays.asList("base", "object"), dispatcher.lookup(Base.class));
+    }
+
+    @Test
+    public void unrelatedTypesKeepRegistrationOrder() {
+        TypeDispatcher<String> dispatcher = new TypeDispatcher<>();
+        dispatcher.put(Serializable.class, "serializable");
+        dispatcher.put(Base.class, "base");
+        assertEquals(Arrays.asList("serializable", "base"), dispatcher.lookup(Leaf.class));
+        dispatcher.clear();
+        dispatcher.put(Base.class, "base");
+        dispatcher.put(Serializable.class, "serializable");
+        assertEquals(Arrays.asList("base", "serializable"), dispatcher.lookup(Leaf.class));
+    }
+
+    @Test
+    public void noMatch() {
+        TypeDispatcher<String> dispatcher = new TypeDispatcher<>();
+        dispatcher.put(Leaf.class, "leaf");
+        assertEquals(Collections.<String>emptyList(), dispatcher.lookup(Base.class));
+        assertEquals(Collections.<String>emptyList(), dispatcher.lookup(String.class));
+    }
+
+    @Test
+    public void cachesUntilRegistrationChanges() {
+        TypeDispatcher<String> dispatcher = new TypeDispatcher<>();
+        dispatcher.put(Base.class, "base");
+        List<String> first = dispatcher.lookup(Leaf.class);
+        assertSame(first, dispatcher.lookup(Leaf.class));
+        dispatcher.put(Leaf.class, "leaf");
+        assertEquals(Arrays.asList("leaf", "base"), dispatcher.lookup(Leaf.class));
+        dispatcher.put(Leaf.class, "leaf2");
+        assertEquals(Arrays.asList("leaf2", "base"), dispatcher.lookup(Leaf.class));
+        dispatcher.clear();
+        assertTrue(dispatcher.lookup(Leaf.class).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void resultIsReadOnly() {
+        TypeDispatcher<String> dispatcher = new TypeDispatcher<>();
+        dispatcher.put(Base.class, "base");
+        dispatcher.lookup(Base.class).add("other");
+    }
+}
@@ -0,0 +1,110 @@
+package tech.yaog.utils.aioclient.buffer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ByteBufferPoolTest {
+
+    @Test
+    public void roundsUpToSizeClass() {
+        ByteBufferPool pool = new ByteBufferPool(false);
+        assertEquals(512, pool.acquire(0).capacity());
+        assertEquals(512, pool.acquire(1).capacity());
+        assertEquals(512, pool.acquire(512).capacity());
+        assertEquals(1024, pool.acquire(513).capacity());
+        assertEquals(4096, pool.acquire(3000).capacity());
+        assertEquals(65536, pool.acquire(65536).capacity());
+        // 超出最大等级按需分配
+        assertEquals(65537, pool.acquire(65537).capacity());
+    }
+
+    @Test
+    public void allocatesMatchingKind() {
+        assertFalse(new ByteBufferPool(false).acquire(100).isDirect());
+        assertTrue(new ByteBufferPool(true).acquire(100).isDirect());
+    }
+
+    @Test
+    public void reusesReleasedBuffer() {
+        ByteBufferPool pool = new ByteBufferPool(false);
+        ByteBuffer buffer = pool.acquire(1000);
+        buffer.put((byte) 1).flip();
+        pool.release(buffer);
+        ByteBuffer again = pool.acquire(700);
+        assertSame(buffer, again);
+        assertEquals(0, again.position());
+        assertEquals(again.capacity(), again.limit());
+        // 其他容量等级不受影响
+        assertNotSame(buffer, pool.acquire(2000));
+    }
+
+    @Test
+    public void ignoresForeignBuffers() {
+        ByteBufferPool pool = new ByteBufferPool(false);
+        ByteBuffer odd = ByteBuffer.allocate(1000);
+        ByteBuffer small = ByteBuffer.allocate(256);
+        ByteBuffer large = ByteBuffer.allocate(131072);
+        ByteBuffer direct = ByteBuffer.allocateDirect(1024);
+        pool.release(odd);
+        pool.release(small);
+        pool.release(large);
+        pool.release(direct);
+        pool.release(null);
+        ByteBuffer acquired = pool.acquire(1000);
+        assertNotSame(odd, acquired);
+        assertNotSame(direct, acquired);
+        assertFalse(acquired.isDirect());
+        assertNotSame(small, pool.acquire(256));
+        assertEquals(65537, pool.acquire(65537).capacity());
+    }
+
+    @Test
+    public void ignoresReadOnlyBuffers() {
+        ByteBufferPool pool = new ByteBufferPool(false);
+        ByteBuffer readOnly = ByteBuffer.allocate(1024).asReadOnlyBuffer();
+        pool.release(readOnly);
+        ByteBuffer acquired = pool.acquire(1024);
+        assertNotSame(readOnly, acquired);
+        assertFalse(acquired.isReadOnly());
+        acquired.put((byte) 1);
+    }
+
+    @Test
+    public void overflowsToSharedCache() throws Exception {
+        final ByteBufferPool pool = new ByteBufferPool(false);
+        final List<ByteBuffer> released = new ArrayList<>();
+        Thread releaser = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                // 线程缓存只保留 8 个，其余进入共享队列
+                for (int i = 0;i<10;i++) {
+                    ByteBuffer buffer = ByteBuffer.allocate(2048);
+                    released.add(buffer);
+                    pool.release(buffer);
+                }
+            }
+        });
+        releaser.start();
+        releaser.join();
+        ByteBuffer first = pool.acquire(2048);
+        ByteBuffer second = pool.acquire(2048);
+        assertTrue(containsSame(released, first));
+        assertTrue(containsSame(released, second));
+        assertNotSame(first, second);
+        assertFalse(containsSame(released, pool.acquire(2048)));
+    }
+
+    private static boolean containsSame(List<ByteBuffer> buffers, ByteBuffer buffer) {
+        for (ByteBuffer b : buffers) {
+            if (b == buffer) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
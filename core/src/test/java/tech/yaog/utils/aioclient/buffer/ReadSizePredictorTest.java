@@ -0,0 +1,83 @@
+package tech.yaog.utils.aioclient.buffer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReadSizePredictorTest {
+
+    @Test
+    public void startsAtInitialSize() {
+        assertEquals(1024, new ReadSizePredictor().next());
+        // 不在大小表中的值向上取整
+        assertEquals(1024, new ReadSizePredictor(64, 1000, 65536).next());
+        assertEquals(112, new ReadSizePredictor(16, 100, 4096).next());
+    }
+
+    @Test
+    public void growsQuicklyWhenFull() {
+        ReadSizePredictor predictor = new ReadSizePredictor();
+        predictor.record(1024);
+        assertEquals(16384, predictor.next());
+        predictor.record(16384);
+        assertEquals(65536, predictor.next());
+        predictor.record(65536);
+        assertEquals(65536, predictor.next());
+    }
+
+    @Test
+    public void partialReadKeepsSize() {
+        ReadSizePredictor predictor = new ReadSizePredictor();
+        for (int i = 0;i<10;i++) {
+            predictor.record(800);
+        }
+        assertEquals(1024, predictor.next());
+    }
+
+    @Test
+    public void shrinksAfterTwoSmallReads() {
+        ReadSizePredictor predictor = new ReadSizePredictor();
+        predictor.record(100);
+        assertEquals(1024, predictor.next());
+        predictor.record(100);
+        assertEquals(512, predictor.next());
+        predictor.record(100);
+        assertEquals(512, predictor.next());
+        predictor.record(100);
+        assertEquals(496, predictor.next());
+    }
+
+    @Test
+    public void fullReadCancelsPendingShrink() {
+        ReadSizePredictor predictor = new ReadSizePredictor();
+        predictor.record(100);
+        predictor.record(1024);
+        assertEquals(16384, predictor.next());
+        predictor.record(100);
+        assertEquals(16384, predictor.next());
+    }
+
+    @Test
+    public void staysWithinMinimum() {
+        ReadSizePredictor predictor = new ReadSizePredictor();
+        for (int i = 0;i<200;i++) {
+            predictor.record(0);
+        }
+        assertEquals(64, predictor.next());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInitialBelowMinimum() {
+        new ReadSizePredictor(1024, 512, 4096);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMaximumBelowInitial() {
+        new ReadSizePredictor(64, 1024, 512);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveMinimum() {
+        new ReadSizePredictor(0, 1024, 4096);
+    }
+}
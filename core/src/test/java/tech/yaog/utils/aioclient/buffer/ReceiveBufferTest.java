@@ -0,0 +1,131 @@
+package tech.yaog.utils.aioclient.buffer;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ReceiveBufferTest {
+
+    private static byte[] bytes(int from, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0;i<length;i++) {
+            bytes[i] = (byte) (from + i);
+        }
+        return bytes;
+    }
+
+    private static byte[] readable(ReceiveBuffer buffer) {
+        return buffer.copy(0, buffer.readableBytes());
+    }
+
+    @Test
+    public void appendAfterPartialConsume() {
+        ReceiveBuffer buffer = new ReceiveBuffer(64);
+        buffer.write(bytes(0, 10));
+        buffer.skip(4);
+        assertEquals(4, buffer.readerIndex());
+        assertEquals(6, buffer.readableBytes());
+        // 尾部空间足够，直接追加，不移动未读数据
+        buffer.write(bytes(10, 5));
+        assertEquals(4, buffer.readerIndex());
+        assertEquals(15, buffer.writerIndex());
+        assertArrayEquals(bytes(4, 11), readable(buffer));
+        assertArrayEquals(bytes(6, 3), buffer.copy(2, 3));
+    }
+
+    @Test
+    public void compactsWhenTailIsFull() {
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        byte[] array = buffer.array();
+        buffer.write(bytes(0, 12));
+        buffer.skip(10);
+        // 尾部只剩 4 字节，已读的 10 字节腾出后足够写入 8 字节
+        buffer.write(bytes(12, 8));
+        assertSame(array, buffer.array());
+        assertEquals(0, buffer.readerIndex());
+        assertEquals(10, buffer.writerIndex());
+        assertArrayEquals(bytes(10, 10), readable(buffer));
+    }
+
+    @Test
+    public void growsPastCapacity() {
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        buffer.write(bytes(0, 10));
+        buffer.skip(2);
+        buffer.write(bytes(10, 30));
+        assertEquals(64, buffer.array().length);
+        assertEquals(0, buffer.readerIndex());
+        assertArrayEquals(bytes(2, 38), readable(buffer));
+        // 远超当前容量时一次扩到足够大
+        buffer.write(bytes(40, 1000));
+        assertEquals(2048, buffer.array().length);
+        assertArrayEquals(bytes(2, 1038), readable(buffer));
+    }
+
+    @Test
+    public void skipAllResetsIndices() {
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        buffer.write(bytes(0, 12));
+        buffer.skip(5);
+        buffer.skip(100);
+        assertEquals(0, buffer.readableBytes());
+        assertEquals(0, buffer.readerIndex());
+        assertEquals(0, buffer.writerIndex());
+        // 读完后从头写入，无需压缩或扩容
+        byte[] array = buffer.array();
+        buffer.write(bytes(0, 16));
+        assertSame(array, buffer.array());
+        assertArrayEquals(bytes(0, 16), readable(buffer));
+    }
+
+    @Test
+    public void skipIgnoresNegative() {
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        buffer.write(bytes(0, 4));
+        buffer.skip(-1);
+        assertEquals(4, buffer.readableBytes());
+    }
+
+    @Test
+    public void skipKeepsConsumedBytesUntilNextWrite() {
+        // Bootstrap 先消费一帧再解码，帧数据在下次写入前必须保持不变
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        buffer.write(bytes(0, 8));
+        byte[] array = buffer.array();
+        buffer.skip(3);
+        buffer.skip(5);
+        assertArrayEquals(bytes(0, 8), Arrays.copyOf(array, 8));
+    }
+
+    @Test
+    public void writesByteBuffer() {
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        ByteBuffer src = ByteBuffer.wrap(bytes(0, 40));
+        src.position(5).limit(35);
+        buffer.write(src);
+        assertEquals(35, src.position());
+        assertArrayEquals(bytes(5, 30), readable(buffer));
+        ByteBuffer direct = ByteBuffer.allocateDirect(8);
+        direct.put(bytes(50, 8)).flip();
+        buffer.skip(25);
+        buffer.write(direct);
+        assertFalse(direct.hasRemaining());
+        byte[] result = readable(buffer);
+        assertEquals(13, result.length);
+        assertArrayEquals(bytes(30, 5), Arrays.copyOf(result, 5));
+        assertArrayEquals(bytes(50, 8), Arrays.copyOfRange(result, 5, 13));
+    }
+
+    @Test
+    public void clearDiscardsEverything() {
+        ReceiveBuffer buffer = new ReceiveBuffer(16);
+        buffer.write(bytes(0, 10));
+        buffer.skip(3);
+        buffer.clear();
+        assertEquals(0, buffer.readableBytes());
+        assertEquals(0, buffer.readerIndex());
+    }
+}
@@ -0,0 +1,119 @@
+package tech.yaog.utils.aioclient.encoder;
+
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import tech.yaog.utils.aioclient.buffer.OutputBuffer;
+
+import static org.junit.Assert.*;
+
+public class StringEncoderTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final String[] TEXTS = {
+            "",
+            "hello",
+            "中文测试，日本語のテキスト",
+            // 代理对：emoji 和 CJK 扩展 B
+            "😀𠀀",
+            "mixed 混合 😀 text",
+            // 不成对的代理与 String.getBytes 一样替换
+            "bad \uD800 surrogate \uDC00",
+    };
+
+    /**
+     * 估计值为 0，每次都要在编码中途扩容
+     */
+    private static class NoHintEncoder extends StringEncoder {
+        NoHintEncoder(Charset charset) {
+            super(charset);
+        }
+
+        @Override
+        public int sizeHint(String msg) {
+            return 0;
+        }
+    }
+
+    private static byte[] encode(StringEncoder encoder, String text) {
+        OutputBuffer out = new OutputBuffer(16);
+        assertTrue(encoder.encode(text, out));
+        return out.toByteArray();
+    }
+
+    private static String repeat(String text, int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0;i<count;i++) {
+            builder.append(text);
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void matchesGetBytes() {
+        for (String name : new String[] {"UTF-8", "UTF-16", "GBK", "ISO-8859-1", "US-ASCII"}) {
+            Charset charset = Charset.forName(name);
+            StringEncoder encoder = new StringEncoder(charset);
+            for (String text : TEXTS) {
+                assertArrayEquals(name + " " + text, text.getBytes(charset), encode(encoder, text));
+                assertArrayEquals(name + " " + text, text.getBytes(charset), encoder.encode(text));
+            }
+        }
+    }
+
+    @Test
+    public void growsWhenHintTooSmall() {
+        StringEncoder encoder = new NoHintEncoder(UTF8);
+        for (String text : TEXTS) {
+            String longText = repeat(text, 300);
+            assertArrayEquals(longText.getBytes(UTF8), encode(encoder, longText));
+        }
+    }
+
+    @Test
+    public void multiByteCharacterAcrossBufferEnd() {
+        // 不同长度的前缀让 3 字节和 4 字节的字符落在每个扩容边界上
+        StringEncoder encoder = new NoHintEncoder(UTF8);
+        for (int prefix = 0;prefix<70;prefix++) {
+            String text = repeat("a", prefix) + repeat("中😀", 20);
+            assertArrayEquals("prefix " + prefix, text.getBytes(UTF8), encode(encoder, text));
+        }
+    }
+
+    @Test
+    public void flushOverflowsBuffer() {
+        if (!Charset.isSupported("ISO-2022-JP")) {
+            return;
+        }
+        // ISO-2022-JP 在 flush 时才写出切回 ASCII 的转义序列，前缀长度覆盖缓冲区恰好写满的情况
+        Charset charset = Charset.forName("ISO-2022-JP");
+        StringEncoder encoder = new NoHintEncoder(charset);
+        for (int prefix = 0;prefix<70;prefix++) {
+            String text = repeat("a", prefix) + "日本語";
+            assertArrayEquals("prefix " + prefix, text.getBytes(charset), encode(encoder, text));
+        }
+    }
+
+    @Test
+    public void appendsAfterExistingData() {
+        StringEncoder encoder = new NoHintEncoder(UTF8);
+        OutputBuffer out = new OutputBuffer(16);
+        out.write(new byte[] {1, 2, 3});
+        String text = repeat("中文😀", 10);
+        assertTrue(encoder.encode(text, out));
+        byte[] bytes = out.toByteArray();
+        assertArrayEquals(new byte[] {1, 2, 3}, Arrays.copyOf(bytes, 3));
+        assertArrayEquals(text.getBytes(UTF8), Arrays.copyOfRange(bytes, 3, bytes.length));
+    }
+
+    @Test
+    public void hintCoversWorstCase() {
+        StringEncoder encoder = new StringEncoder(UTF8);
+        for (String text : TEXTS) {
+            assertTrue(encoder.sizeHint(text) >= text.getBytes(UTF8).length);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package tech.yaog.utils.aioclient.executor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.*;
+
+public class SerialExecutorTest {
+
+    /**
+     * 在调用线程上直接执行，可切换为拒绝
+     */
+    static class SwitchableExecutor implements Executor {
+        boolean rejecting;
+        int rejected;
+
+        @Override
+        public void execute(Runnable command) {
+            if (rejecting) {
+                rejected++;
+                throw new RejectedExecutionException("rejecting");
+            }
+            command.run();
+        }
+    }
+
+    static class Record implements Runnable {
+        final List<Integer> log;
+        final int id;
+
+        Record(List<Integer> log, int id) {
+            this.log = log;
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            log.add(id);
+        }
+    }
+
+    @Test
+    public void runsInOrder() {
+        List<Integer> log = new ArrayList<>();
+        SerialExecutor executor = new SerialExecutor(new SwitchableExecutor());
+        for (int i = 0;i<200;i++) {
+            executor.execute(new Record(log, i));
+        }
+        assertEquals(200, log.size());
+        for (int i = 0;i<200;i++) {
+            assertEquals(i, (int) log.get(i));
+        }
+    }
+
+    @Test
+    public void recoversAfterRejection() {
+        List<Integer> log = new ArrayList<>();
+        SwitchableExecutor pool = new SwitchableExecutor();
+        SerialExecutor executor = new SerialExecutor(pool);
+        pool.rejecting = true;
+        try {
+            executor.execute(new Record(log, 1));
+            fail("not rejected");
+        } catch (RejectedExecutionException e) {
+            // 预期
+        }
+        pool.rejecting = false;
+        executor.execute(new Record(log, 2));
+        // 被拒绝的任务已撤回，不会在之后执行
+        assertEquals(1, log.size());
+        assertEquals(2, (int) log.get(0));
+    }
+
+    @Test
+    public void drainsOnCurrentThreadWhenRescheduleRejected() {
+        final List<Integer> log = new ArrayList<>();
+        final SwitchableExecutor pool = new SwitchableExecutor();
+        final SerialExecutor executor = new SerialExecutor(pool);
+        // 第一个任务执行期间再提交 100 个并让线程池开始拒绝，超过单次执行上限后需要重新调度
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0;i<100;i++) {
+                    executor.execute(new Record(log, i));
+                }
+                pool.rejecting = true;
+            }
+        });
+        assertTrue(pool.rejected > 0);
+        assertEquals(100, log.size());
+        pool.rejecting = false;
+        executor.execute(new Record(log, 100));
+        assertEquals(101, log.size());
+    }
+}
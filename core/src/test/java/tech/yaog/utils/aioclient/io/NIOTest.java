@@ -0,0 +1,79 @@
+package tech.yaog.utils.aioclient.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.Bootstrap;
+
+import static org.junit.Assert.*;
+
+/**
+ * 对端断开后通道应从事件线程注销，且只注销一次
+ */
+public class NIOTest {
+
+    private ServerSocket server;
+    private EventLoopGroup group;
+    private EventLoopGroup previous;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        group = new EventLoopGroup(1);
+        previous = NIO.getEventLoopGroup();
+        NIO.setEventLoopGroup(group);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        NIO.setEventLoopGroup(previous);
+        group.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void deregistersOnPeerReset() throws Exception {
+        final CountDownLatch disconnected = new CountDownLatch(1);
+        Bootstrap bootstrap = new Bootstrap()
+                .ioClass(NIO.class)
+                .onEvent(new Bootstrap.Event() {
+                    @Override
+                    public void onConnected() {
+                    }
+
+                    @Override
+                    public void onDisconnected() {
+                        disconnected.countDown();
+                    }
+
+                    @Override
+                    public void onSent() {
+                    }
+
+                    @Override
+                    public void onReceived() {
+                    }
+                });
+        EventLoop eventLoop = group.next();
+        try {
+            assertTrue(bootstrap.connect("127.0.0.1:" + server.getLocalPort()));
+            Socket socket = server.accept();
+            assertEquals(1, eventLoop.channelCount());
+            socket.setSoLinger(true, 0);
+            socket.close();
+            assertTrue("not disconnected", disconnected.await(5, TimeUnit.SECONDS));
+            assertEquals(0, eventLoop.channelCount());
+        }
+        finally {
+            bootstrap.disconnect();
+        }
+        assertEquals(0, eventLoop.channelCount());
+    }
+}
@@ -0,0 +1,135 @@
+package tech.yaog.utils.aioclient.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    /**
+     * 0、1、各个 2 的幂及其前后的值，以及 Long.MAX_VALUE
+     */
+    private static List<Long> boundaries() {
+        List<Long> values = new ArrayList<>();
+        values.add(0L);
+        values.add(1L);
+        for (int shift = 1;shift<63;shift++) {
+            long power = 1L << shift;
+            values.add(power - 1);
+            values.add(power);
+            values.add(power + 1);
+        }
+        values.add(Long.MAX_VALUE - 1);
+        values.add(Long.MAX_VALUE);
+        return values;
+    }
+
+    @Test
+    public void valueFallsInsideItsBucket() {
+        for (long value : boundaries()) {
+            int bucket = Histogram.bucket(value);
+            assertTrue("bucket of " + value, bucket >= 0 && bucket < Histogram.BUCKETS);
+            assertTrue("upper bound of " + value, Histogram.upperBound(bucket) >= value);
+            if (bucket > 0) {
+                assertTrue("previous bucket of " + value, Histogram.upperBound(bucket - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (int i = 0;i<8;i++) {
+            assertEquals(i, Histogram.bucket(i));
+            assertEquals(i, Histogram.upperBound(i));
+        }
+    }
+
+    @Test
+    public void powersOfTwoStartABucket() {
+        for (int shift = 2;shift<63;shift++) {
+            long power = 1L << shift;
+            assertEquals(Histogram.bucket(power - 1) + 1, Histogram.bucket(power));
+            assertEquals(power - 1, Histogram.upperBound(Histogram.bucket(power - 1)));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        int last = Histogram.bucket(Long.MAX_VALUE);
+        for (int i = 0;i<last;i++) {
+            long upper = Histogram.upperBound(i);
+            assertEquals(i, Histogram.bucket(upper));
+            assertEquals(i + 1, Histogram.bucket(upper + 1));
+        }
+    }
+
+    @Test
+    public void relativeErrorWithinQuarter() {
+        for (long value : boundaries()) {
+            if (value == 0) {
+                continue;
+            }
+            long upper = Histogram.upperBound(Histogram.bucket(value));
+            assertTrue("error of " + value, (double) (upper - value) / value <= 0.25);
+        }
+    }
+
+    @Test
+    public void negativeCountsAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getValueAtQuantile(0.5));
+    }
+
+    @Test
+    public void emptySnapshot() {
+        Histogram.Snapshot snapshot = new Histogram().snapshot();
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getValueAtQuantile(0.99));
+        assertEquals(0, snapshot.getMean(), 0);
+    }
+
+    @Test
+    public void quantilesOfUniformDistribution() {
+        ClientMetrics metrics = new ClientMetrics();
+        for (int i = 1;i<=1000;i++) {
+            metrics.onDecoded(i);
+        }
+        Histogram.Snapshot snapshot = metrics.snapshot().getDecodeNanos();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000, snapshot.getMax());
+        assertEquals(500.5, snapshot.getMean(), 0.001);
+        // 500 在 [448, 511] 桶中，取桶上界
+        assertEquals(511, snapshot.getValueAtQuantile(0.5));
+        // 990 在 [896, 1023] 桶中，不超过最大值
+        assertEquals(1000, snapshot.getValueAtQuantile(0.99));
+        assertEquals(1, snapshot.getValueAtQuantile(0));
+        assertEquals(1000, snapshot.getValueAtQuantile(1));
+    }
+
+    @Test
+    public void quantilesOfSkewedDistribution() {
+        ClientMetrics metrics = new ClientMetrics();
+        for (int i = 0;i<900;i++) {
+            metrics.onHandled(100);
+        }
+        for (int i = 0;i<100;i++) {
+            metrics.onHandled(10000);
+        }
+        Histogram.Snapshot snapshot = metrics.snapshot().getHandleNanos();
+        // 100 在 [96, 111] 桶中
+        assertEquals(111, snapshot.getValueAtQuantile(0.5));
+        assertEquals(111, snapshot.getValueAtQuantile(0.9));
+        assertEquals(10000, snapshot.getValueAtQuantile(0.91));
+        assertEquals(10000, snapshot.getValueAtQuantile(0.99));
+        // 其他直方图不受影响
+        assertEquals(0, metrics.snapshot().getDecodeNanos().getCount());
+    }
+}
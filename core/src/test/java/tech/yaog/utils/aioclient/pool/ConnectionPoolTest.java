@@ -0,0 +1,169 @@
+package tech.yaog.utils.aioclient.pool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import tech.yaog.utils.aioclient.Bootstrap;
+import tech.yaog.utils.aioclient.StringDecoder;
+import tech.yaog.utils.aioclient.encoder.StringEncoder;
+import tech.yaog.utils.aioclient.splitter.DelimiterSplitter;
+
+import static org.junit.Assert.*;
+
+public class ConnectionPoolTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private ServerSocket server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Socket first = server.accept();
+                    // 等客户端完成连接后重置第一条连接
+                    Thread.sleep(200);
+                    first.setSoLinger(true, 0);
+                    first.close();
+                    while (true) {
+                        echo(server.accept());
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // 测试结束，server 已关闭
+                }
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private static void echo(final Socket socket) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), UTF_8));
+                    OutputStream os = socket.getOutputStream();
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        os.write((line + "\n").getBytes(UTF_8));
+                        os.flush();
+                    }
+                } catch (IOException e) {
+                    // 连接已关闭
+                }
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    private ConnectionPool newPool(final boolean autoReconnect) {
+        return new ConnectionPool(new ConnectionPool.BootstrapFactory() {
+            @Override
+            public Bootstrap create(String endpoint) {
+                Bootstrap.CorrelationExtractor correlation = new Bootstrap.CorrelationExtractor() {
+                    @Override
+                    public Object correlationId(Object msg) {
+                        return ((String) msg).trim();
+                    }
+                };
+                Bootstrap bootstrap = new Bootstrap()
+                        .addEncoder(new StringEncoder(UTF_8))
+                        .addDecoder(new StringDecoder(UTF_8))
+                        .splitter(new DelimiterSplitter("\n".getBytes(UTF_8)))
+                        .correlation(correlation, correlation);
+                if (autoReconnect) {
+                    bootstrap.autoReconnect(50, 200, 0);
+                }
+                return bootstrap;
+            }
+        }, Collections.singletonList("127.0.0.1:" + server.getLocalPort()), 1)
+                .healthCheckInterval(500);
+    }
+
+    @Test
+    public void rejectsAutoReconnect() {
+        ConnectionPool pool = newPool(true);
+        try {
+            pool.start();
+            fail("autoReconnect accepted");
+        } catch (IllegalStateException e) {
+            // 预期
+        }
+        assertEquals(0, pool.availableConnections());
+        pool.close();
+    }
+
+    @Test
+    public void reconnectKeepsPendingRequests() throws Exception {
+        ConnectionPool pool = newPool(false);
+        try {
+            pool.start();
+            awaitAvailable(pool, 1);
+            awaitAvailable(pool, 0);
+            Bootstrap bootstrap = pool.connections().get(0);
+            // 连接断开期间发出的请求在健康检查重连后发送
+            CompletableFuture<String> reply = bootstrap.request("req1\n", 5000);
+            assertEquals("req1", reply.get(5, TimeUnit.SECONDS).trim());
+            assertEquals(1, pool.availableConnections());
+        }
+        finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void closeShutsDownOwnedExecutor() throws Exception {
+        ConnectionPool pool = newPool(false).healthCheckInterval(50);
+        pool.start();
+        awaitAvailable(pool, 1);
+        // 健康检查在池的线程池上执行
+        Thread.sleep(200);
+        assertTrue(workerThreads() > 0);
+        pool.close();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (workerThreads() > 0) {
+            assertTrue("workers still alive", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static int workerThreads() {
+        int count = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("ConnectionPool worker")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void awaitAvailable(ConnectionPool pool, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.availableConnections() != expected) {
+            assertTrue("available " + pool.availableConnections(), System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
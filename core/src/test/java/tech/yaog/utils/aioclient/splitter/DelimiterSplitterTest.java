@@ -0,0 +1,76 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DelimiterSplitterTest {
+
+    private static void assertSplits(byte[][] delimiters, String input, String... expected) {
+        byte[] data = input.getBytes();
+        List<String> frames = Arrays.asList(expected);
+        SplitterFeeder whole = new SplitterFeeder(new DelimiterSplitter(delimiters)).feed(data);
+        assertEquals(frames, whole.frames());
+        // 任意两个切分点分三次送入
+        for (int i = 0;i<=data.length;i++) {
+            for (int j = i;j<=data.length;j++) {
+                SplitterFeeder feeder = new SplitterFeeder(new DelimiterSplitter(delimiters)).feedInPieces(data, i, j);
+                assertEquals("cut at " + i + ", " + j, frames, feeder.frames());
+                assertEquals(whole.pendingBytes(), feeder.pendingBytes());
+            }
+        }
+        SplitterFeeder bytes = new SplitterFeeder(new DelimiterSplitter(delimiters));
+        for (int i = 0;i<data.length;i++) {
+            bytes.feed(data, i, i + 1);
+        }
+        assertEquals(frames, bytes.frames());
+    }
+
+    private static byte[][] delimiters(String... delimiters) {
+        byte[][] bytes = new byte[delimiters.length][];
+        for (int i = 0;i<delimiters.length;i++) {
+            bytes[i] = delimiters[i].getBytes();
+        }
+        return bytes;
+    }
+
+    @Test
+    public void singleByteDelimiter() {
+        assertSplits(delimiters("\n"), "ab\n\ncde\nf", "ab", "cde");
+    }
+
+    @Test
+    public void shortDelimiter() {
+        assertSplits(delimiters("$$"), "aa$$bbb$$$c$$", "aa", "bbb", "$c");
+    }
+
+    @Test
+    public void longDelimiterStraddlingReads() {
+        assertSplits(delimiters("\r\n\r\n"), "GET /\r\nHost: x\r\n\r\nbody\r\n\r\n\r\n\r", "GET /\r\nHost: x", "body");
+    }
+
+    @Test
+    public void repeatedPrefixDelimiter() {
+        assertSplits(delimiters("aab"), "aaaab-aab-aaaaab", "aa", "-", "-aaa");
+    }
+
+    @Test
+    public void multipleDelimitersPreferLongest() {
+        assertSplits(delimiters("\n", "\r\n"), "a\r\nb\nc\r\n\r\r\n", "a", "b", "c", "\r");
+    }
+
+    @Test
+    public void multipleDelimitersWithDifferentFirstBytes() {
+        assertSplits(delimiters("##", "|"), "a|b##c#|d##", "a", "b", "c#", "d");
+    }
+
+    @Test
+    public void noDelimiterKeepsData() {
+        SplitterFeeder feeder = new SplitterFeeder(new DelimiterSplitter("$$".getBytes())).feedInPieces("abc$".getBytes(), 1, 2);
+        assertTrue(feeder.frames().isEmpty());
+        assertEquals(4, feeder.pendingBytes());
+    }
+}
@@ -0,0 +1,60 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HeadToTailDelimiterSplitterTest {
+
+    private static void assertSplits(String head, String tail, String input, String... expected) {
+        byte[] data = input.getBytes();
+        List<String> frames = Arrays.asList(expected);
+        SplitterFeeder whole = new SplitterFeeder(new HeadToTailDelimiterSplitter(head.getBytes(), tail.getBytes())).feed(data);
+        assertEquals(frames, whole.frames());
+        for (int i = 0;i<=data.length;i++) {
+            for (int j = i;j<=data.length;j++) {
+                SplitterFeeder feeder = new SplitterFeeder(new HeadToTailDelimiterSplitter(head.getBytes(), tail.getBytes())).feedInPieces(data, i, j);
+                assertEquals("cut at " + i + ", " + j, frames, feeder.frames());
+            }
+        }
+        SplitterFeeder bytes = new SplitterFeeder(new HeadToTailDelimiterSplitter(head.getBytes(), tail.getBytes()));
+        for (int i = 0;i<data.length;i++) {
+            bytes.feed(data, i, i + 1);
+        }
+        assertEquals(frames, bytes.frames());
+    }
+
+    @Test
+    public void framesBetweenHeadAndTail() {
+        assertSplits("<<", ">>", "<<ab>><<c>><<>>", "ab", "c");
+    }
+
+    @Test
+    public void dropsNoiseBeforeHead() {
+        assertSplits("<<", ">>", "xx<x<<ab>>noise<<c>>>", "ab", "c");
+    }
+
+    @Test
+    public void singleByteMarkers() {
+        assertSplits("\u0002", "\u0003", "\u0003a\u0002bc\u0003\u0002d\u0003", "bc", "d");
+    }
+
+    @Test
+    public void tailInsideHeadIsNotMatched() {
+        // 尾部标识从头部之后开始查找
+        assertSplits("STX", "TX", "STXaTXSTXTXSTXbTX", "a", "b");
+    }
+
+    @Test
+    public void keepsPartialHead() {
+        SplitterFeeder feeder = new SplitterFeeder(new HeadToTailDelimiterSplitter("<<<".getBytes(), ">".getBytes()))
+                .feed("noise<<".getBytes());
+        assertTrue(feeder.frames().isEmpty());
+        assertEquals(2, feeder.pendingBytes());
+        feeder.feed("<a>".getBytes());
+        assertEquals(Arrays.asList("a"), feeder.frames());
+    }
+}
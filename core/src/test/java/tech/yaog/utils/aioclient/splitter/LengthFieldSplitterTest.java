@@ -0,0 +1,237 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+
+import static org.junit.Assert.*;
+
+public class LengthFieldSplitterTest {
+
+    /**
+     * 记录拆包器报告的异常
+     */
+    static class Errors implements AbstractSplitter.Callback {
+        final List<Throwable> errors = new ArrayList<>();
+
+        @Override
+        public void requestSplit() {
+        }
+
+        @Override
+        public void onException(Throwable t) {
+            errors.add(t);
+        }
+    }
+
+    /**
+     * 像 Bootstrap 一样登记回调，callback 只对同包及子类可见
+     */
+    private static LengthFieldSplitter reporting(final Errors errors, int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip) {
+        return new LengthFieldSplitter(maxFrameLength, lengthFieldOffset, lengthFieldLength, lengthAdjustment, initialBytesToStrip) {
+            {
+                callback = errors;
+            }
+        };
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bigEndian(long value, int width) {
+        byte[] bytes = new byte[width];
+        for (int i = 0;i<width;i++) {
+            bytes[i] = (byte) (value >>> ((width - 1 - i) * 8));
+        }
+        return bytes;
+    }
+
+    private static byte[] varint(long value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        while (value >= 0x80) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+        return out.toByteArray();
+    }
+
+    /**
+     * 整体、逐字节以及在任意两个位置切分送入，结果应一致
+     */
+    private static void assertSplits(SplitterSource source, byte[] data, String... expected) {
+        List<String> frames = Arrays.asList(expected);
+        assertEquals(frames, new SplitterFeeder(source.create()).feed(data).frames());
+        for (int i = 0;i<=data.length;i++) {
+            for (int j = i;j<=data.length;j++) {
+                SplitterFeeder feeder = new SplitterFeeder(source.create()).feedInPieces(data, i, j);
+                assertEquals("cut at " + i + ", " + j, frames, feeder.frames());
+                assertEquals(0, feeder.pendingBytes());
+            }
+        }
+        SplitterFeeder bytes = new SplitterFeeder(source.create());
+        for (int i = 0;i<data.length;i++) {
+            bytes.feed(data, i, i + 1);
+        }
+        assertEquals(frames, bytes.frames());
+    }
+
+    interface SplitterSource {
+        AbstractSplitter create();
+    }
+
+    @Test
+    public void everyFieldWidth() {
+        for (final int width : new int[] {1, 2, 3, 4, 8}) {
+            byte[] data = concat(bigEndian(2, width), "ab".getBytes(), bigEndian(0, width), bigEndian(3, width), "cde".getBytes());
+            assertSplits(new SplitterSource() {
+                @Override
+                public AbstractSplitter create() {
+                    return new LengthFieldSplitter(1024, 0, width, 0, width);
+                }
+            }, data, "ab", "cde");
+        }
+    }
+
+    @Test
+    public void littleEndian() {
+        byte[] data = concat(new byte[] {3, 0}, "abc".getBytes(), new byte[] {1, 0}, "d".getBytes());
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(ByteOrder.LITTLE_ENDIAN, 1024, 0, 2, 0, 2);
+            }
+        }, data, "abc", "d");
+    }
+
+    @Test
+    public void varintLength() {
+        byte[] body = new byte[300];
+        Arrays.fill(body, (byte) 'x');
+        byte[] data = concat(varint(300), body, varint(2), "ab".getBytes());
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(1024, 0, LengthFieldSplitter.VARINT, 0, 0);
+            }
+        }, data, new String(concat(varint(300), body)), new String(concat(varint(2), "ab".getBytes())));
+    }
+
+    @Test
+    public void keepsHeaderWithoutStrip() {
+        byte[] data = concat(bigEndian(2, 2), "ab".getBytes());
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(1024, 0, 2, 0, 0);
+            }
+        }, data, new String(data));
+    }
+
+    @Test
+    public void stripsPartOfHeader() {
+        // [类型 1 字节][长度 2 字节][消息体]，只去掉类型字节
+        byte[] data = concat(new byte[] {'T'}, bigEndian(2, 2), "ab".getBytes());
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(1024, 1, 2, 0, 1);
+            }
+        }, data, new String(concat(bigEndian(2, 2), "ab".getBytes())));
+    }
+
+    @Test
+    public void negativeAdjustmentWhenLengthIncludesHeader() {
+        // 长度字段值包含 4 字节头部
+        byte[] data = concat(bigEndian(6, 4), "ab".getBytes(), bigEndian(4, 4));
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(1024, 0, 4, -4, 4);
+            }
+        }, data, "ab");
+    }
+
+    @Test
+    public void positiveAdjustmentForTrailer() {
+        // 长度字段不包含 2 字节校验尾
+        byte[] data = concat(bigEndian(2, 1), "ab".getBytes(), "CS".getBytes());
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(1024, 0, 1, 2, 1);
+            }
+        }, data, "abCS");
+    }
+
+    @Test
+    public void acceptsFrameOfMaximumLength() {
+        // 最大长度包含头部
+        byte[] data = concat(bigEndian(4, 2), "abcd".getBytes());
+        assertSplits(new SplitterSource() {
+            @Override
+            public AbstractSplitter create() {
+                return new LengthFieldSplitter(6, 0, 2, 0, 2);
+            }
+        }, data, "abcd");
+    }
+
+    @Test
+    public void discardsOversizedFrameAcrossReads() {
+        byte[] data = concat(bigEndian(5, 2), "abcde".getBytes(), bigEndian(2, 2), "ok".getBytes());
+        for (int i = 0;i<=data.length;i++) {
+            for (int j = i;j<=data.length;j++) {
+                Errors errors = new Errors();
+                LengthFieldSplitter splitter = reporting(errors, 6, 0, 2, 0, 2);
+                SplitterFeeder feeder = new SplitterFeeder(splitter).feedInPieces(data, i, j);
+                assertEquals("cut at " + i + ", " + j, Arrays.asList("ok"), feeder.frames());
+                assertEquals(1, errors.errors.size());
+            }
+        }
+    }
+
+    @Test
+    public void reportsLengthShorterThanHeader() {
+        // 修正后的帧长小于头部长度，跳过长度字段后继续
+        Errors errors = new Errors();
+        LengthFieldSplitter splitter = reporting(errors, 1024, 0, 2, -4, 2);
+        byte[] data = concat(bigEndian(1, 2), bigEndian(6, 2), "ab".getBytes());
+        SplitterFeeder feeder = new SplitterFeeder(splitter).feed(data);
+        assertEquals(Arrays.asList("ab"), feeder.frames());
+        assertEquals(1, errors.errors.size());
+    }
+
+    @Test
+    public void reportsMalformedVarint() {
+        Errors errors = new Errors();
+        LengthFieldSplitter splitter = reporting(errors, 1024, 0, LengthFieldSplitter.VARINT, 0, 0);
+        byte[] data = concat(new byte[] {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80}, varint(1), "a".getBytes());
+        SplitterFeeder feeder = new SplitterFeeder(splitter).feed(data);
+        assertEquals(Arrays.asList("\u0001a"), feeder.frames());
+        assertEquals(1, errors.errors.size());
+    }
+
+    @Test
+    public void waitsForIncompleteFrame() {
+        SplitterFeeder feeder = new SplitterFeeder(new LengthFieldSplitter(1024, 0, 4, 0, 4))
+                .feed(concat(bigEndian(10, 4), "abc".getBytes()));
+        assertTrue(feeder.frames().isEmpty());
+        assertEquals(7, feeder.pendingBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnsupportedWidth() {
+        new LengthFieldSplitter(1024, 0, 5, 0, 0);
+    }
+}
@@ -0,0 +1,81 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tech.yaog.utils.aioclient.AbstractSplitter;
+
+/**
+ * 按 Bootstrap 的方式驱动拆包器：数据分批到达，每次拆包后按 Frames 消费，未消费部分留到下一次
+ */
+class SplitterFeeder {
+
+    /**
+     * 未消费数据前的空位，检查拆包器是否正确使用 offset
+     */
+    private static final int PADDING = 3;
+
+    private final AbstractSplitter splitter;
+    private final AbstractSplitter.Frames frames = new AbstractSplitter.Frames();
+    private byte[] pending = new byte[0];
+    private final List<byte[]> received = new ArrayList<>();
+
+    SplitterFeeder(AbstractSplitter splitter) {
+        this.splitter = splitter;
+    }
+
+    SplitterFeeder feed(byte[] data, int from, int to) {
+        byte[] raw = new byte[PADDING + pending.length + to - from];
+        System.arraycopy(pending, 0, raw, PADDING, pending.length);
+        System.arraycopy(data, from, raw, PADDING + pending.length, to - from);
+        int length = raw.length - PADDING;
+        frames.clear();
+        splitter.split(raw, PADDING, length, frames);
+        int position = 0;
+        for (int i = 0;i<frames.size();i++) {
+            position += frames.offset(i);
+            int frameLength = frames.length(i);
+            if (frameLength > 0) {
+                received.add(Arrays.copyOfRange(raw, PADDING + position, PADDING + position + frameLength));
+            }
+            position += frameLength + frames.skip(i);
+        }
+        if (position > length) {
+            throw new AssertionError("consumed " + position + " of " + length);
+        }
+        pending = Arrays.copyOfRange(raw, PADDING + position, raw.length);
+        return this;
+    }
+
+    SplitterFeeder feed(byte[] data) {
+        return feed(data, 0, data.length);
+    }
+
+    /**
+     * 按给定的切分点分批送入
+     */
+    SplitterFeeder feedInPieces(byte[] data, int... cuts) {
+        int from = 0;
+        for (int cut : cuts) {
+            feed(data, from, cut);
+            from = cut;
+        }
+        return feed(data, from, data.length);
+    }
+
+    /**
+     * 收到的帧，与 Bootstrap 一样不包括空帧
+     */
+    List<String> frames() {
+        List<String> frames = new ArrayList<>();
+        for (byte[] frame : received) {
+            frames.add(new String(frame));
+        }
+        return frames;
+    }
+
+    int pendingBytes() {
+        return pending.length;
+    }
+}
@@ -0,0 +1,70 @@
+package tech.yaog.utils.aioclient.splitter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import tech.yaog.utils.aioclient.AbstractHandler;
+import tech.yaog.utils.aioclient.Bootstrap;
+import tech.yaog.utils.aioclient.StringDecoder;
+
+import static org.junit.Assert.*;
+
+/**
+ * 超时断包的帧不在共用的定时线程上解码和处理
+ */
+public class TimestampSplitterTest {
+
+    private ServerSocket server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void splitsOffTimerThread() throws Exception {
+        final CountDownLatch received = new CountDownLatch(1);
+        final AtomicReference<String> message = new AtomicReference<>();
+        final AtomicReference<String> thread = new AtomicReference<>();
+        Bootstrap bootstrap = new Bootstrap()
+                .splitter(new TimestampSplitter(50))
+                .dispatchMode(Bootstrap.DispatchMode.INLINE)
+                .addDecoder(new StringDecoder(Charset.forName("UTF-8")))
+                .addHandler(new AbstractHandler<String>() {
+                    @Override
+                    public boolean handle(String msg) {
+                        message.set(msg);
+                        thread.set(Thread.currentThread().getName());
+                        received.countDown();
+                        return true;
+                    }
+                });
+        try {
+            assertTrue(bootstrap.connect("127.0.0.1:" + server.getLocalPort()));
+            Socket socket = server.accept();
+            socket.getOutputStream().write("hello".getBytes("UTF-8"));
+            socket.getOutputStream().flush();
+            assertTrue("not received", received.await(5, TimeUnit.SECONDS));
+            assertEquals("hello", message.get());
+            assertFalse(thread.get(), thread.get().startsWith("AIOClientTimer"));
+            socket.close();
+        }
+        finally {
+            bootstrap.disconnect();
+        }
+    }
+}
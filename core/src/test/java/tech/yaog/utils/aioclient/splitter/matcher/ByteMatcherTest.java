@@ -0,0 +1,141 @@
+package tech.yaog.utils.aioclient.splitter.matcher;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * 各查找器与逐字节比较的结果一致
+ */
+public class ByteMatcherTest {
+
+    /**
+     * 逐字节查找，同一位置取最长的标识；较长标识在末尾只出现了前缀时暂不判定
+     */
+    private static int naiveIndexOf(byte[][] patterns, byte[] raw, int from, int to, int[] matched) {
+        byte[][] sorted = patterns.clone();
+        Arrays.sort(sorted, new Comparator<byte[]>() {
+            @Override
+            public int compare(byte[] l, byte[] r) {
+                return r.length - l.length;
+            }
+        });
+        for (int i = from;i<to;i++) {
+            for (byte[] pattern : sorted) {
+                int n = Math.min(pattern.length, to - i);
+                boolean prefix = true;
+                for (int k = 0;k<n;k++) {
+                    if (raw[i + k] != pattern[k]) {
+                        prefix = false;
+                        break;
+                    }
+                }
+                if (!prefix) {
+                    continue;
+                }
+                if (n < pattern.length) {
+                    if (patterns.length > 1) {
+                        return -1;
+                    }
+                    continue;
+                }
+                matched[0] = pattern.length;
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] random(Random random, int length, int alphabet) {
+        byte[] bytes = new byte[length];
+        for (int i = 0;i<length;i++) {
+            bytes[i] = (byte) ('a' + random.nextInt(alphabet));
+        }
+        return bytes;
+    }
+
+    private static void assertMatches(byte[][] patterns, byte[] raw) {
+        ByteMatcher matcher = ByteMatcher.of(patterns);
+        int[] matched = new int[1];
+        for (int from = 0;from<=raw.length;from++) {
+            for (int to = from;to<=raw.length;to++) {
+                int expected = naiveIndexOf(patterns, raw, from, to, matched);
+                int actual = matcher.indexOf(raw, from, to);
+                String message = new String(raw) + " [" + from + ", " + to + ")";
+                assertEquals(message, expected, actual);
+                if (expected >= 0) {
+                    assertEquals(message, matched[0], matcher.matchedLength());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void selectsMatcherByPatternLength() {
+        assertTrue(ByteMatcher.of(new byte[] {1}) instanceof SingleByteMatcher);
+        assertTrue(ByteMatcher.of(new byte[] {1, 2}) instanceof PrefixScanMatcher);
+        assertTrue(ByteMatcher.of(new byte[] {1, 2, 3}) instanceof PrefixScanMatcher);
+        assertTrue(ByteMatcher.of(new byte[] {1, 2, 3, 4}) instanceof HorspoolMatcher);
+        assertTrue(ByteMatcher.of(new byte[] {1}, new byte[] {2}) instanceof MultiPatternMatcher);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyPattern() {
+        ByteMatcher.of(new byte[0]);
+    }
+
+    @Test
+    public void singlePatternAgreesWithNaiveSearch() {
+        Random random = new Random(1);
+        for (int length = 1;length<=9;length++) {
+            for (int round = 0;round<20;round++) {
+                byte[] pattern = random(random, length, 2);
+                // 长度超过 16 时走 SWAR 路径
+                byte[] raw = random(random, 40, 2);
+                assertMatches(new byte[][] {pattern}, raw);
+            }
+        }
+    }
+
+    @Test
+    public void multiPatternAgreesWithNaiveSearch() {
+        Random random = new Random(2);
+        for (int round = 0;round<200;round++) {
+            int count = 2 + random.nextInt(3);
+            byte[][] patterns = new byte[count][];
+            for (int i = 0;i<count;i++) {
+                patterns[i] = random(random, 1 + random.nextInt(4), 3);
+            }
+            assertMatches(patterns, random(random, 30, 3));
+        }
+    }
+
+    @Test
+    public void multiPatternWithCommonFirstByte() {
+        byte[][] patterns = {"\r\n".getBytes(), "\r\n\r\n".getBytes(), "\r".getBytes()};
+        assertMatches(patterns, "ab\r\n\r\ncd\rx\r\n\r".getBytes());
+        Random random = new Random(3);
+        byte[] raw = new byte[64];
+        for (int i = 0;i<raw.length;i++) {
+            raw[i] = random.nextInt(4) == 0 ? (byte) '\r' : random.nextInt(4) == 0 ? (byte) '\n' : (byte) 'a';
+        }
+        assertMatches(patterns, raw);
+    }
+
+    @Test
+    public void findsPatternAtBoundaries() {
+        byte[] raw = "xyz-abcd-xyz".getBytes();
+        ByteMatcher matcher = ByteMatcher.of("xyz".getBytes());
+        assertEquals(0, matcher.indexOf(raw, 0, raw.length));
+        assertEquals(9, matcher.indexOf(raw, 1, raw.length));
+        assertEquals(-1, matcher.indexOf(raw, 1, raw.length - 1));
+        ByteMatcher horspool = ByteMatcher.of("abcd".getBytes());
+        assertEquals(4, horspool.indexOf(raw, 4, 8));
+        assertEquals(-1, horspool.indexOf(raw, 4, 7));
+        assertEquals(-1, horspool.indexOf(raw, 5, raw.length));
+    }
+}
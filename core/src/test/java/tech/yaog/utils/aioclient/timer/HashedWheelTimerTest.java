@@ -0,0 +1,131 @@
+package tech.yaog.utils.aioclient.timer;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void firesAfterDeadline() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("TestTimer", 1, TimeUnit.MILLISECONDS, 8);
+        final CountDownLatch fired = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final long[] elapsed = new long[1];
+        // 超过一圈（8ms）的任务
+        timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                elapsed[0] = System.nanoTime() - start;
+                fired.countDown();
+            }
+        }, 50, TimeUnit.MILLISECONDS);
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue("fired after " + elapsed[0], elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    public void firesInDeadlineOrder() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("TestTimer", 1, TimeUnit.MILLISECONDS, 8);
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch fired = new CountDownLatch(4);
+        int[] delays = {40, 5, 25, 12};
+        for (final int delay : delays) {
+            timer.newTimeout(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(delay);
+                    fired.countDown();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(5, (int) order.get(0));
+        assertEquals(12, (int) order.get(1));
+        assertEquals(25, (int) order.get(2));
+        assertEquals(40, (int) order.get(3));
+    }
+
+    @Test
+    public void keepsOrderAfterFallingBehindMoreThanOneTurn() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("TestTimer", 1, TimeUnit.MILLISECONDS, 8);
+        final List<Integer> order = new CopyOnWriteArrayList<>();
+        final CountDownLatch fired = new CountDownLatch(2);
+        // 阻塞工作线程，醒来时已落后超过一圈
+        timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Thread.sleep(30);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, 1, TimeUnit.MILLISECONDS);
+        for (final int delay : new int[] {12, 5}) {
+            timer.newTimeout(new Runnable() {
+                @Override
+                public void run() {
+                    order.add(delay);
+                    fired.countDown();
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals(5, (int) order.get(0));
+        assertEquals(12, (int) order.get(1));
+    }
+
+    @Test
+    public void cancelledTimeoutDoesNotFire() throws Exception {
+        HashedWheelTimer timer = new HashedWheelTimer("TestTimer", 1, TimeUnit.MILLISECONDS, 8);
+        final CountDownLatch fired = new CountDownLatch(1);
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+                fired.countDown();
+            }
+        }, 20, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+        assertFalse(fired.await(100, TimeUnit.MILLISECONDS));
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void sleepsUntilNextDeadline() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadCpuTimeSupported()) {
+            return;
+        }
+        HashedWheelTimer timer = new HashedWheelTimer("IdleWheel", 1, TimeUnit.MILLISECONDS, 512);
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, 10, TimeUnit.SECONDS);
+        Thread.sleep(100);
+        Thread worker = null;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if ("IdleWheel".equals(thread.getName())) {
+                worker = thread;
+            }
+        }
+        assertNotNull(worker);
+        long before = threads.getThreadCpuTime(worker.getId());
+        Thread.sleep(1000);
+        long used = threads.getThreadCpuTime(worker.getId()) - before;
+        timeout.cancel();
+        // 按 1ms tick 空转时每秒要醒 1000 次
+        assertTrue("worker used " + used + "ns while waiting", used < TimeUnit.MILLISECONDS.toNanos(5));
+    }
+}
@@ -0,0 +1,4 @@
+# Bootstrap 通过反射调用 io 类的 (IO.Callback) 构造函数
+-keep class * extends tech.yaog.utils.aioclient.io.IO {
+    public <init>(tech.yaog.utils.aioclient.io.IO$Callback);
+}